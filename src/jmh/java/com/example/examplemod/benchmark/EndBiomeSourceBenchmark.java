@@ -0,0 +1,112 @@
+package com.example.examplemod.benchmark;
+
+import com.example.examplemod.worldgen.CachedEndBiomeSource;
+import net.minecraft.core.HolderLookup;
+import net.minecraft.core.QuartPos;
+import net.minecraft.core.registries.Registries;
+import net.minecraft.world.level.biome.BiomeSource;
+import net.minecraft.world.level.biome.Climate;
+import net.minecraft.world.level.biome.TheEndBiomeSource;
+import net.minecraft.world.level.levelgen.Aquifer;
+import net.minecraft.world.level.levelgen.DensityFunctions;
+import net.minecraft.world.level.levelgen.NoiseChunk;
+import net.minecraft.world.level.levelgen.NoiseGeneratorSettings;
+import net.minecraft.world.level.levelgen.RandomState;
+import net.minecraft.world.level.levelgen.blending.Blender;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Fills one End chunk's worth of quart biomes per invocation, walking row by row through a 128x128 chunk area.
+ * The area is twice as many section columns as the cached source's erosion cache holds, so every chunk starts
+ * with a miss, like it would during generation. Run with {@code -prof gc} to compare allocation rates as well.
+ * <p>
+ * With {@code sampler=noiseChunk} every chunk gets a new {@link NoiseChunk} and asks for biomes through its
+ * {@code cachedClimateSampler}, like {@code NoiseBasedChunkGenerator.doCreateBiomes} does. Building the noise
+ * chunk is part of the measurement on both sides.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EndBiomeSourceBenchmark {
+    // The End is 256 blocks tall, so 64 quarts
+    private static final int QUARTS_TALL = 64;
+    private static final int AREA_CHUNKS = 128;
+
+    @Param({"0", "8675309"})
+    public long seed;
+
+    // Quart coordinate of the area's corner
+    @Param({"512", "-7500"})
+    public int origin;
+
+    // randomState passes RandomState.sampler() for every chunk; noiseChunk builds a per-chunk sampler like worldgen
+    @Param({"randomState", "noiseChunk"})
+    public String sampler;
+
+    private TheEndBiomeSource vanilla;
+    private CachedEndBiomeSource cached;
+    private RandomState randomState;
+    private NoiseGeneratorSettings settings;
+    private int chunk;
+
+    @Setup
+    public void setup() {
+        HolderLookup.Provider registries = VanillaBootstrap.registries();
+        this.vanilla = TheEndBiomeSource.create(registries.lookupOrThrow(Registries.BIOME));
+        this.cached = CachedEndBiomeSource.create(registries.lookupOrThrow(Registries.BIOME));
+        this.randomState = RandomState.create(registries, NoiseGeneratorSettings.END, this.seed);
+        this.settings = registries.lookupOrThrow(Registries.NOISE_SETTINGS).getOrThrow(NoiseGeneratorSettings.END).value();
+    }
+
+    @Benchmark
+    public void vanillaGetNoiseBiome(Blackhole blackhole) {
+        fillChunk(this.vanilla, blackhole);
+    }
+
+    @Benchmark
+    public void cachedGetNoiseBiome(Blackhole blackhole) {
+        fillChunk(this.cached, blackhole);
+    }
+
+    private void fillChunk(BiomeSource source, Blackhole blackhole) {
+        this.chunk = (this.chunk + 1) % (AREA_CHUNKS * AREA_CHUNKS);
+        int minX = this.origin + this.chunk % AREA_CHUNKS * 4;
+        int minZ = this.origin + this.chunk / AREA_CHUNKS * 4;
+        Climate.Sampler sampler = sampler(minX, minZ);
+        for (int x = minX; x < minX + 4; x++) {
+            for (int z = minZ; z < minZ + 4; z++) {
+                for (int y = 0; y < QUARTS_TALL; y++)
+                    blackhole.consume(source.getNoiseBiome(x, y, z, sampler));
+            }
+        }
+    }
+
+    private Climate.Sampler sampler(int minQuartX, int minQuartZ) {
+        if (!this.sampler.equals("noiseChunk"))
+            return this.randomState.sampler();
+        Aquifer.FluidStatus fluid = new Aquifer.FluidStatus(this.settings.seaLevel(), this.settings.defaultFluid());
+        NoiseChunk noiseChunk = new NoiseChunk(
+                16 / this.settings.noiseSettings().getCellWidth(), this.randomState,
+                QuartPos.toBlock(minQuartX), QuartPos.toBlock(minQuartZ),
+                this.settings.noiseSettings(), DensityFunctions.BeardifierMarker.INSTANCE, this.settings,
+                (x, y, z) -> fluid, Blender.empty()
+        );
+        return noiseChunk.cachedClimateSampler(this.randomState.router(), this.settings.spawnTarget());
+    }
+}
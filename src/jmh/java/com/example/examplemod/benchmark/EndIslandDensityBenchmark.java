@@ -0,0 +1,122 @@
+package com.example.examplemod.benchmark;
+
+import com.example.examplemod.worldgen.CachedEndIslandDensityFunction;
+import net.minecraft.world.level.levelgen.DensityFunction;
+import net.minecraft.world.level.levelgen.DensityFunctions;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Samples {@code end_islands} at every noise cell corner of one End chunk per invocation, walking row by row
+ * through a 512x512 chunk area.
+ * <p>
+ * The area is 4096 tiles, four times what the cached function keeps. Each tile is built when the walk first
+ * reaches it, reused for the rest of its 8x8 chunks, and evicted again before the walk wraps around. That is the
+ * same mix of tile hits and misses that chunk generation sees.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EndIslandDensityBenchmark {
+    // End noise cells are 8 blocks wide and 4 blocks tall over a 128 block tall dimension
+    private static final int CELL_WIDTH = 8;
+    private static final int CELL_HEIGHT = 4;
+    private static final int HEIGHT = 128;
+    private static final int CORNERS = (16 / CELL_WIDTH + 1) * (16 / CELL_WIDTH + 1) * (HEIGHT / CELL_HEIGHT + 1);
+    private static final int AREA_CHUNKS = 512;
+
+    @Param({"0", "8675309"})
+    public long seed;
+
+    // Block coordinate of the area's corner; the outer islands start around 1024 blocks out
+    @Param({"2048", "-30000"})
+    public int origin;
+
+    private DensityFunction vanilla;
+    private DensityFunction cached;
+    private final double[] values = new double[CORNERS];
+    private final ChunkCorners corners = new ChunkCorners();
+    private int chunk;
+
+    @Setup
+    public void setup() {
+        this.vanilla = DensityFunctions.endIslands(this.seed);
+        this.cached = new CachedEndIslandDensityFunction(this.seed);
+    }
+
+    @Benchmark
+    public void vanillaCompute(Blackhole blackhole) {
+        computeChunk(this.vanilla, blackhole);
+    }
+
+    @Benchmark
+    public void cachedCompute(Blackhole blackhole) {
+        computeChunk(this.cached, blackhole);
+    }
+
+    @Benchmark
+    public double[] vanillaFillArray() {
+        this.corners.moveTo(nextChunk());
+        this.vanilla.fillArray(this.values, this.corners);
+        return this.values;
+    }
+
+    @Benchmark
+    public double[] cachedFillArray() {
+        this.corners.moveTo(nextChunk());
+        this.cached.fillArray(this.values, this.corners);
+        return this.values;
+    }
+
+    private void computeChunk(DensityFunction function, Blackhole blackhole) {
+        this.corners.moveTo(nextChunk());
+        for (int i = 0; i < CORNERS; i++)
+            blackhole.consume(function.compute(this.corners.forIndex(i)));
+    }
+
+    private int nextChunk() {
+        this.chunk = (this.chunk + 1) % (AREA_CHUNKS * AREA_CHUNKS);
+        return this.chunk;
+    }
+
+    // Every cell corner of one chunk, in the same x, z, y order NoiseChunk uses
+    private final class ChunkCorners implements DensityFunction.ContextProvider {
+        private int minX;
+        private int minZ;
+
+        void moveTo(int chunk) {
+            this.minX = origin + chunk % AREA_CHUNKS * 16;
+            this.minZ = origin + chunk / AREA_CHUNKS * 16;
+        }
+
+        @Override
+        public DensityFunction.FunctionContext forIndex(int index) {
+            int y = index % (HEIGHT / CELL_HEIGHT + 1);
+            int xz = index / (HEIGHT / CELL_HEIGHT + 1);
+            int z = xz % (16 / CELL_WIDTH + 1);
+            int x = xz / (16 / CELL_WIDTH + 1);
+            return new DensityFunction.SinglePointContext(this.minX + x * CELL_WIDTH, y * CELL_HEIGHT, this.minZ + z * CELL_WIDTH);
+        }
+
+        @Override
+        public void fillAllDirectly(double[] values, DensityFunction function) {
+            for (int i = 0; i < values.length; i++)
+                values[i] = function.compute(forIndex(i));
+        }
+    }
+}
@@ -0,0 +1,191 @@
+package com.example.examplemod.benchmark;
+
+import com.example.examplemod.sync.EndStateKind;
+import com.example.examplemod.sync.EndStateTable;
+import io.netty.buffer.Unpooled;
+import net.minecraft.core.BlockPos;
+import net.minecraft.nbt.CompoundTag;
+import net.minecraft.network.FriendlyByteBuf;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One server tick of End state updates going out to every player in the End, once as a single
+ * {@link EndStateTable} delta per player and once the tag-based way, as a full update tag per changed block entity
+ * per player like {@code ClientboundBlockEntityDataPacket}.
+ * <p>
+ * Each tick a few gateways start a cooldown, and every 20 ticks an end crystal is destroyed. Bytes written for the
+ * players are reported through the {@code bytes} counter alongside the {@code ticks} counter; divide the two for
+ * bytes per tick.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EndStateSyncBenchmark {
+    // Gateway block entity type id, as it would be written in its update packet
+    private static final int GATEWAY_TYPE_ID = 25;
+
+    // Vanilla has 20 gateways; the larger count stands in for a pack of modded per-island state on top
+    @Param({"20", "200"})
+    public int gateways;
+
+    @Param({"10", "100"})
+    public int players;
+
+    // Gateways whose cooldown starts each tick
+    @Param({"1", "8"})
+    public int changesPerTick;
+
+    private final FriendlyByteBuf out = new FriendlyByteBuf(Unpooled.buffer());
+    private final FriendlyByteBuf delta = new FriendlyByteBuf(Unpooled.buffer());
+    private EndStateTable table;
+    private BlockPos[] positions;
+    private CompoundTag[] tags;
+    private long gameTime;
+    private int nextGateway;
+    private int crystals;
+
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    @State(Scope.Thread)
+    public static class Sent {
+        public long bytes;
+        public long ticks;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            this.bytes = 0L;
+            this.ticks = 0L;
+        }
+    }
+
+    @Setup
+    public void setup() {
+        this.table = new EndStateTable();
+        this.positions = new BlockPos[this.gateways];
+        this.tags = new CompoundTag[this.gateways];
+        // The vanilla gateway ring, 96 blocks out from the origin, and further rings beyond it
+        for (int i = 0; i < this.gateways; i++) {
+            double angle = 2.0 * Math.PI * (i % 20) / 20.0;
+            int radius = 96 + i / 20 * 64;
+            this.positions[i] = BlockPos.containing(Math.cos(angle) * radius, 75, Math.sin(angle) * radius);
+        }
+        this.gameTime = 1_000_000L;
+        this.crystals = 10;
+        for (int i = 0; i < this.gateways; i++)
+            update(i);
+        updateFight();
+        this.table.commit();
+    }
+
+    @Benchmark
+    public void delta(Sent sent) {
+        int since = this.table.version();
+        tick(true);
+        this.table.commit();
+
+        // Every player is at the same version, so the delta is encoded once and copied out to each of them
+        this.delta.clear();
+        this.table.writeDelta(this.delta, since);
+        for (int player = 0; player < this.players; player++) {
+            this.out.clear();
+            this.out.writeBytes(this.delta, this.delta.readerIndex(), this.delta.readableBytes());
+            sent.bytes += this.out.readableBytes();
+        }
+        sent.ticks++;
+    }
+
+    @Benchmark
+    public void tags(Sent sent) {
+        int first = this.nextGateway;
+        boolean fightChanged = tick(false);
+
+        // The update tags are built once per change and encoded once per player connection
+        for (int i = 0; i < this.changesPerTick; i++) {
+            int gateway = (first + i) % this.gateways;
+            this.tags[gateway] = gatewayTag(gateway);
+        }
+        CompoundTag fight = fightChanged ? fightTag() : null;
+        for (int player = 0; player < this.players; player++) {
+            this.out.clear();
+            for (int i = 0; i < this.changesPerTick; i++) {
+                int gateway = (first + i) % this.gateways;
+                this.out.writeBlockPos(this.positions[gateway]);
+                this.out.writeVarInt(GATEWAY_TYPE_ID);
+                this.out.writeNbt(this.tags[gateway]);
+            }
+            if (fight != null)
+                this.out.writeNbt(fight);
+            sent.bytes += this.out.readableBytes();
+        }
+        sent.ticks++;
+    }
+
+    // Moves the game on a tick, updating the table if it is the one being measured. Returns whether the dragon
+    // fight changed this tick
+    private boolean tick(boolean updateTable) {
+        this.gameTime++;
+        for (int i = 0; i < this.changesPerTick; i++) {
+            if (updateTable)
+                update(this.nextGateway);
+            this.nextGateway = (this.nextGateway + 1) % this.gateways;
+        }
+        if (this.gameTime % 20L != 0L)
+            return false;
+        this.crystals = this.crystals == 0 ? 10 : this.crystals - 1;
+        if (updateTable)
+            updateFight();
+        return true;
+    }
+
+    // The gateway was just used, so its 40 tick cooldown starts now
+    private void update(int gateway) {
+        long key = this.positions[gateway].asLong();
+        this.table.set(EndStateKind.GATEWAY, key, EndStateKind.GATEWAY_SPAWNED_AT, 1_000L + gateway);
+        this.table.set(EndStateKind.GATEWAY, key, EndStateKind.GATEWAY_COOLDOWN_UNTIL, this.gameTime + 40L);
+        this.table.set(EndStateKind.GATEWAY, key, EndStateKind.GATEWAY_HAS_EXIT, 1L);
+    }
+
+    private void updateFight() {
+        this.table.set(EndStateKind.DRAGON_FIGHT, 0L, EndStateKind.FIGHT_PREVIOUSLY_KILLED, 1L);
+        this.table.set(EndStateKind.DRAGON_FIGHT, 0L, EndStateKind.FIGHT_CRYSTALS_ALIVE, this.crystals);
+        this.table.set(EndStateKind.DRAGON_FIGHT, 0L, EndStateKind.FIGHT_GATEWAYS_LEFT, 20L - Math.min(20, this.gateways));
+    }
+
+    // What the gateway's update tag holds, plus the cooldown it would need to carry for clients to show it
+    private CompoundTag gatewayTag(int gateway) {
+        CompoundTag tag = new CompoundTag();
+        tag.putLong("Age", this.gameTime - 1_000L - gateway);
+        tag.putInt("TeleportCooldown", 40);
+        tag.putIntArray("exit_portal", new int[]{this.positions[gateway].getX() * 10, 70, this.positions[gateway].getZ() * 10});
+        tag.putBoolean("ExactTeleport", false);
+        return tag;
+    }
+
+    // The fields EndDragonFight.Data saves, plus the crystal count clients would need
+    private CompoundTag fightTag() {
+        CompoundTag tag = new CompoundTag();
+        tag.putBoolean("NeedsStateScanning", false);
+        tag.putBoolean("DragonKilled", false);
+        tag.putBoolean("PreviouslyKilled", true);
+        tag.putBoolean("IsRespawning", false);
+        tag.putInt("CrystalsAlive", this.crystals);
+        tag.putIntArray("Gateways", new int[20 - Math.min(20, this.gateways)]);
+        return tag;
+    }
+}
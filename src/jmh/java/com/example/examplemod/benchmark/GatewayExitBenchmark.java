@@ -0,0 +1,252 @@
+package com.example.examplemod.benchmark;
+
+import com.example.examplemod.gateway.GatewayLandingIndex;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.SectionPos;
+import net.minecraft.nbt.LongArrayTag;
+import net.minecraft.nbt.NbtOps;
+import net.minecraft.util.Mth;
+import net.minecraft.world.level.BlockGetter;
+import net.minecraft.world.level.block.Blocks;
+import net.minecraft.world.level.block.entity.BlockEntity;
+import net.minecraft.world.level.block.state.BlockState;
+import net.minecraft.world.level.material.FluidState;
+import net.minecraft.world.phys.Vec3;
+import org.jetbrains.annotations.Nullable;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Finds the exit for one of the 20 vanilla gateways per invocation, once the way vanilla's
+ * {@code TheEndGatewayBlockEntity.getPortalPosition} does it and once through {@link GatewayLandingIndex#find}.
+ * <p>
+ * Both sides run over the same prebuilt island chunk, so chunk loading and generation are left out entirely and
+ * the vanilla numbers are a lower bound. The vanilla side mirrors {@code findExitPortalXZPosTentative}'s ray walk,
+ * {@code findValidSpawnInChunk} and {@code findTallestBlock}; the indexed side looks the landing up and walks down
+ * from the surface like {@code GatewayExits} does.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class GatewayExitBenchmark {
+    private static final int GATEWAYS = 20;
+    private static final int GATEWAY_RADIUS = 96;
+    private static final int EXIT_SEARCH_RADIUS = 16;
+    // Matches GatewayLandingIndex.SECTORS
+    private static final int SECTORS = 360;
+
+    // Blocks from the origin where the outer islands start; vanilla walks forward from 1024 until it gets there.
+    // Both stay inside the 1280 blocks the walk can reach, where the index keeps spots.
+    @Param({"1100", "1250"})
+    public int islandDistance;
+
+    private final BlockPos[] gateways = new BlockPos[GATEWAYS];
+    private final IslandChunk island = new IslandChunk();
+    private GatewayLandingIndex index;
+    private int next;
+
+    @Setup
+    public void setup() {
+        VanillaBootstrap.registries();
+        for (int i = 0; i < GATEWAYS; i++) {
+            double angle = 2.0 * Math.PI * i / GATEWAYS;
+            this.gateways[i] = BlockPos.containing(Math.cos(angle) * GATEWAY_RADIUS, 75, Math.sin(angle) * GATEWAY_RADIUS);
+        }
+
+        // One landing per sector, on the island's surface where that sector's bearing first reaches it
+        long[] sectors = new long[SECTORS];
+        for (int sector = 0; sector < SECTORS; sector++) {
+            double angle = (sector + 0.5) / SECTORS * Math.PI * 2.0 - Math.PI;
+            int x = Mth.floor(Math.cos(angle) * this.islandDistance);
+            int z = Mth.floor(Math.sin(angle) * this.islandDistance);
+            this.island.moveTo(SectionPos.blockToSectionCoord(x), SectionPos.blockToSectionCoord(z));
+            sectors[sector] = BlockPos.asLong(x, this.island.surface(x, z) - 1, z);
+        }
+        this.index = GatewayLandingIndex.CODEC.parse(NbtOps.INSTANCE, new LongArrayTag(sectors)).getOrThrow();
+    }
+
+    @Benchmark
+    public BlockPos vanilla() {
+        BlockPos gateway = nextGateway();
+        Vec3 tentative = findExitPortalXZPosTentative(gateway);
+        this.island.moveTo(SectionPos.blockToSectionCoord(tentative.x), SectionPos.blockToSectionCoord(tentative.z));
+        BlockPos spawn = findValidSpawnInChunk();
+        if (spawn == null)
+            spawn = BlockPos.containing(tentative.x + 0.5, 75.0, tentative.z + 0.5);
+        return vanillaFindTallestBlock(spawn).above(10);
+    }
+
+    @Benchmark
+    public BlockPos indexed() {
+        long landing = this.index.find(nextGateway());
+        BlockPos pos = BlockPos.of(landing);
+        this.island.moveTo(SectionPos.blockToSectionCoord(pos.getX()), SectionPos.blockToSectionCoord(pos.getZ()));
+        return indexedFindTallestBlock(pos).above(10);
+    }
+
+    private BlockPos nextGateway() {
+        this.next = (this.next + 1) % GATEWAYS;
+        return this.gateways[this.next];
+    }
+
+    private Vec3 findExitPortalXZPosTentative(BlockPos pos) {
+        Vec3 direction = new Vec3(pos.getX(), 0.0, pos.getZ()).normalize();
+        Vec3 tentative = direction.scale(1024.0);
+        for (int i = 16; !isChunkEmpty(tentative) && i-- > 0; tentative = tentative.add(direction.scale(-16.0))) {
+        }
+        for (int i = 16; isChunkEmpty(tentative) && i-- > 0; tentative = tentative.add(direction.scale(16.0))) {
+        }
+        return tentative;
+    }
+
+    // Stands in for getHighestFilledSectionIndex() == -1 on the loaded chunk: everything short of the islands is void
+    private boolean isChunkEmpty(Vec3 pos) {
+        int chunkX = SectionPos.blockToSectionCoord(pos.x);
+        int chunkZ = SectionPos.blockToSectionCoord(pos.z);
+        double x = (chunkX << 4) + 8;
+        double z = (chunkZ << 4) + 8;
+        return x * x + z * z < (double) this.islandDistance * this.islandDistance;
+    }
+
+    @Nullable
+    private BlockPos findValidSpawnInChunk() {
+        BlockPos min = new BlockPos(this.island.minX, 30, this.island.minZ);
+        BlockPos max = new BlockPos(this.island.minX + 15, this.island.highestSectionPosition() + 16 - 1, this.island.minZ + 15);
+        BlockPos spawn = null;
+        double spawnDistance = 0.0;
+        for (BlockPos pos : BlockPos.betweenClosed(min, max)) {
+            BlockState state = this.island.getBlockState(pos);
+            BlockPos above = pos.above();
+            BlockPos above2 = pos.above(2);
+            if (state.is(Blocks.END_STONE)
+                    && !this.island.getBlockState(above).isCollisionShapeFullBlock(this.island, above)
+                    && !this.island.getBlockState(above2).isCollisionShapeFullBlock(this.island, above2)) {
+                double distance = pos.distToCenterSqr(0.0, 0.0, 0.0);
+                if (spawn == null || distance < spawnDistance) {
+                    spawn = pos;
+                    spawnDistance = distance;
+                }
+            }
+        }
+        return spawn;
+    }
+
+    private BlockPos vanillaFindTallestBlock(BlockPos pos) {
+        BlockPos tallest = null;
+        for (int dx = -EXIT_SEARCH_RADIUS; dx <= EXIT_SEARCH_RADIUS; dx++) {
+            for (int dz = -EXIT_SEARCH_RADIUS; dz <= EXIT_SEARCH_RADIUS; dz++) {
+                if (dx == 0 && dz == 0)
+                    continue;
+                for (int y = this.island.getMaxY(); y > (tallest == null ? this.island.getMinY() : tallest.getY()); y--) {
+                    BlockPos probe = new BlockPos(pos.getX() + dx, y, pos.getZ() + dz);
+                    if (this.island.getBlockState(probe).isCollisionShapeFullBlock(this.island, probe)) {
+                        tallest = probe;
+                        break;
+                    }
+                }
+            }
+        }
+        return tallest == null ? pos : tallest;
+    }
+
+    private BlockPos indexedFindTallestBlock(BlockPos pos) {
+        BlockPos tallest = null;
+        BlockPos.MutableBlockPos probe = new BlockPos.MutableBlockPos();
+        for (int dx = -EXIT_SEARCH_RADIUS; dx <= EXIT_SEARCH_RADIUS; dx++) {
+            for (int dz = -EXIT_SEARCH_RADIUS; dz <= EXIT_SEARCH_RADIUS; dz++) {
+                if (dx == 0 && dz == 0)
+                    continue;
+                int x = pos.getX() + dx;
+                int z = pos.getZ() + dz;
+                int floor = tallest == null ? this.island.getMinY() : tallest.getY();
+                for (int y = this.island.surface(x, z) - 1; y > floor; y--) {
+                    if (this.island.getBlockState(probe.set(x, y, z)).isCollisionShapeFullBlock(this.island, probe)) {
+                        tallest = probe.immutable();
+                        break;
+                    }
+                }
+            }
+        }
+        return tallest == null ? pos : tallest;
+    }
+
+    /**
+     * An End stone hill covering one chunk and the 16 blocks around it, which is everything either search reads.
+     * Moving it to another chunk only moves its corner, so every chunk looks the same.
+     */
+    private static final class IslandChunk implements BlockGetter {
+        private static final int SIZE = 16 + 2 * EXIT_SEARCH_RADIUS;
+        private static final int BOTTOM = 40;
+        private static final int PEAK = 72;
+
+        private final int[] surface = new int[SIZE * SIZE];
+        private int minX;
+        private int minZ;
+
+        IslandChunk() {
+            for (int x = 0; x < SIZE; x++) {
+                for (int z = 0; z < SIZE; z++)
+                    this.surface[x * SIZE + z] = PEAK - (Math.abs(x - SIZE / 2) + Math.abs(z - SIZE / 2)) / 3;
+            }
+        }
+
+        void moveTo(int chunkX, int chunkZ) {
+            this.minX = SectionPos.sectionToBlockCoord(chunkX);
+            this.minZ = SectionPos.sectionToBlockCoord(chunkZ);
+        }
+
+        // What the WORLD_SURFACE heightmap would hold: one above the top block
+        int surface(int x, int z) {
+            int dx = x - this.minX + EXIT_SEARCH_RADIUS;
+            int dz = z - this.minZ + EXIT_SEARCH_RADIUS;
+            if (dx < 0 || dz < 0 || dx >= SIZE || dz >= SIZE)
+                return getMinY();
+            return this.surface[dx * SIZE + dz];
+        }
+
+        int highestSectionPosition() {
+            return SectionPos.sectionToBlockCoord(SectionPos.blockToSectionCoord(PEAK));
+        }
+
+        @Override
+        public BlockState getBlockState(BlockPos pos) {
+            int y = pos.getY();
+            return y >= BOTTOM && y < surface(pos.getX(), pos.getZ()) ? Blocks.END_STONE.defaultBlockState() : Blocks.AIR.defaultBlockState();
+        }
+
+        @Override
+        public FluidState getFluidState(BlockPos pos) {
+            return getBlockState(pos).getFluidState();
+        }
+
+        @Nullable
+        @Override
+        public BlockEntity getBlockEntity(BlockPos pos) {
+            return null;
+        }
+
+        @Override
+        public int getHeight() {
+            return 256;
+        }
+
+        @Override
+        public int getMinY() {
+            return 0;
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.example.examplemod.benchmark;
+
+import net.minecraft.SharedConstants;
+import net.minecraft.core.HolderLookup;
+import net.minecraft.data.registries.VanillaRegistries;
+import net.minecraft.server.Bootstrap;
+
+/**
+ * Bootstraps vanilla outside of a running game so benchmarks can build real worldgen objects.
+ */
+final class VanillaBootstrap {
+    private static HolderLookup.Provider registries;
+
+    private VanillaBootstrap() {}
+
+    static synchronized HolderLookup.Provider registries() {
+        if (registries == null) {
+            SharedConstants.tryDetectVersion();
+            Bootstrap.bootStrap();
+            registries = VanillaRegistries.createLookup();
+        }
+        return registries;
+    }
+}
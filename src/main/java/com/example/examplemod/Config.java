@@ -35,12 +35,37 @@ public class Config {
             .comment("A list of items to log on common setup.")
             .defineListAllowEmpty("items", List.of("minecraft:iron_ingot"), Config::validateItemName);
 
+    private static final ForgeConfigSpec.IntValue GROWTH_TICK_BUDGET_MICROS = BUILDER
+            .comment("How much time, in microseconds, queued chorus and End flora growth may use each server tick, shared by all dimensions")
+            .defineInRange("growthTickBudgetMicros", 2000, 50, 50000);
+
+    private static final ForgeConfigSpec.IntValue GROWTH_MAX_QUEUED = BUILDER
+            .comment("How many growth attempts may wait in the queue per dimension before growth runs immediately again")
+            .defineInRange("growthMaxQueued", 65536, 0, Integer.MAX_VALUE);
+
+    private static final ForgeConfigSpec.BooleanValue PROFILER_JFR_EVENTS = BUILDER
+            .comment("Whether to emit a Java Flight Recorder event for every timed End system call, for lining up with profiler captures")
+            .define("profilerJfrEvents", false);
+
+    private static final ForgeConfigSpec.DoubleValue PREGEN_TARGET_MSPT = BUILDER
+            .comment("/endertime pregen stops queueing new chunks while the server's average MSPT is above this")
+            .defineInRange("pregenTargetMspt", 40.0, 1.0, 1000.0);
+
+    private static final ForgeConfigSpec.IntValue PREGEN_MAX_IN_FLIGHT = BUILDER
+            .comment("How many chunks /endertime pregen may be generating at once, 0 for one per available core")
+            .defineInRange("pregenMaxInFlight", 0, 0, 1024);
+
     static final ForgeConfigSpec SPEC = BUILDER.build();
 
     public static boolean logDirtBlock;
     public static int magicNumber;
     public static String magicNumberIntroduction;
     public static Set<Item> items;
+    public static int growthTickBudgetMicros;
+    public static int growthMaxQueued;
+    public static boolean profilerJfrEvents;
+    public static double pregenTargetMspt;
+    public static int pregenMaxInFlight;
 
     private static boolean validateItemName(final Object obj) {
         return obj instanceof final String itemName && ForgeRegistries.ITEMS.containsKey(ResourceLocation.tryParse(itemName));
@@ -56,5 +81,11 @@ public class Config {
         items = ITEM_STRINGS.get().stream()
                 .map(itemName -> ForgeRegistries.ITEMS.getValue(ResourceLocation.tryParse(itemName)))
                 .collect(Collectors.toSet());
+
+        growthTickBudgetMicros = GROWTH_TICK_BUDGET_MICROS.get();
+        growthMaxQueued = GROWTH_MAX_QUEUED.get();
+        profilerJfrEvents = PROFILER_JFR_EVENTS.get();
+        pregenTargetMspt = PREGEN_TARGET_MSPT.get();
+        pregenMaxInFlight = PREGEN_MAX_IN_FLIGHT.get();
     }
 }
@@ -1,16 +1,29 @@
 package com.example.examplemod;
 
+import com.example.examplemod.benchmark.EndChunkThroughput;
+import com.example.examplemod.gametest.EndArenaTrackerEquivalence;
+import com.example.examplemod.gametest.EndIslandEquivalence;
+import com.example.examplemod.gametest.EnderManArrowTeleport;
+import com.example.examplemod.pregen.EndPregenerator;
+import com.example.examplemod.sync.EndStateNetwork;
+import com.example.examplemod.worldgen.CachedEndBiomeSource;
+import com.example.examplemod.worldgen.CachedEndIslandDensityFunction;
 import com.mojang.logging.LogUtils;
+import com.mojang.serialization.MapCodec;
 import net.minecraft.client.Minecraft;
 import net.minecraft.core.registries.Registries;
+import net.minecraft.gametest.framework.GameTestHelper;
+import net.minecraft.server.level.TicketType;
 import net.minecraft.world.food.FoodProperties;
 import net.minecraft.world.item.BlockItem;
 import net.minecraft.world.item.CreativeModeTab;
 import net.minecraft.world.item.CreativeModeTabs;
 import net.minecraft.world.item.Item;
+import net.minecraft.world.level.biome.BiomeSource;
 import net.minecraft.world.level.block.Block;
 import net.minecraft.world.level.block.Blocks;
 import net.minecraft.world.level.block.state.BlockBehaviour;
+import net.minecraft.world.level.levelgen.DensityFunction;
 import net.minecraft.world.level.material.MapColor;
 import net.minecraftforge.api.distmarker.Dist;
 import net.minecraftforge.event.BuildCreativeModeTabContentsEvent;
@@ -25,6 +38,8 @@ import net.minecraftforge.registries.ForgeRegistries;
 import net.minecraftforge.registries.RegistryObject;
 import org.slf4j.Logger;
 
+import java.util.function.Consumer;
+
 // The value here should match an entry in the META-INF/mods.toml file
 @Mod(ExampleMod.MODID)
 public final class ExampleMod {
@@ -38,6 +53,14 @@ public final class ExampleMod {
     public static final DeferredRegister<Item> ITEMS = DeferredRegister.create(ForgeRegistries.ITEMS, MODID);
     // Create a Deferred Register to hold CreativeModeTabs which will all be registered under the "examplemod" namespace
     public static final DeferredRegister<CreativeModeTab> CREATIVE_MODE_TABS = DeferredRegister.create(Registries.CREATIVE_MODE_TAB, MODID);
+    // Create a Deferred Register to hold DensityFunction types which will all be registered under the "examplemod" namespace
+    public static final DeferredRegister<MapCodec<? extends DensityFunction>> DENSITY_FUNCTION_TYPES = DeferredRegister.create(Registries.DENSITY_FUNCTION_TYPE, MODID);
+    // Create a Deferred Register to hold BiomeSource types which will all be registered under the "examplemod" namespace
+    public static final DeferredRegister<MapCodec<? extends BiomeSource>> BIOME_SOURCES = DeferredRegister.create(Registries.BIOME_SOURCE, MODID);
+    // Create a Deferred Register to hold GameTest functions which will all be registered under the "examplemod" namespace
+    public static final DeferredRegister<Consumer<GameTestHelper>> TEST_FUNCTIONS = DeferredRegister.create(Registries.TEST_FUNCTION, MODID);
+    // Create a Deferred Register to hold chunk TicketTypes which will all be registered under the "examplemod" namespace
+    public static final DeferredRegister<TicketType> TICKET_TYPES = DeferredRegister.create(Registries.TICKET_TYPE, MODID);
 
     // Creates a new Block with the id "examplemod:example_block", combining the namespace and path
     public static final RegistryObject<Block> EXAMPLE_BLOCK = BLOCKS.register("example_block",
@@ -72,6 +95,45 @@ public final class ExampleMod {
                 output.accept(EXAMPLE_ITEM.get()); // Add the example item to the tab. For your own tabs, this method is preferred over the event
             }).build());
 
+    // Creates the cached End island density function with the id "examplemod:end_islands".
+    // The End's sloped_cheese density function is overridden in our data pack to use it in place of minecraft:end_islands
+    public static final RegistryObject<MapCodec<CachedEndIslandDensityFunction>> END_ISLANDS = DENSITY_FUNCTION_TYPES.register("end_islands",
+        CachedEndIslandDensityFunction.CODEC::codec
+    );
+
+    // Creates the cached End biome source with the id "examplemod:end".
+    // Our data pack's the_end dimension uses it in place of minecraft:the_end
+    public static final RegistryObject<MapCodec<CachedEndBiomeSource>> END_BIOME_SOURCE = BIOME_SOURCES.register("end",
+        () -> CachedEndBiomeSource.CODEC
+    );
+
+    // Creates the End chunk throughput benchmark with the id "examplemod:end_chunk_throughput", run by runGameTestServer
+    // through the test instance of the same name in our data pack
+    public static final RegistryObject<Consumer<GameTestHelper>> END_CHUNK_THROUGHPUT = TEST_FUNCTIONS.register("end_chunk_throughput",
+        () -> EndChunkThroughput::run
+    );
+
+    // Creates the check that examplemod:end_islands matches vanilla, with the id "examplemod:end_island_equivalence"
+    public static final RegistryObject<Consumer<GameTestHelper>> END_ISLAND_EQUIVALENCE = TEST_FUNCTIONS.register("end_island_equivalence",
+        () -> EndIslandEquivalence::run
+    );
+
+    // Creates the check that the dragon arena tracker matches vanilla's lookups, with the id "examplemod:end_arena_tracker_equivalence"
+    public static final RegistryObject<Consumer<GameTestHelper>> END_ARENA_TRACKER_EQUIVALENCE = TEST_FUNCTIONS.register("end_arena_tracker_equivalence",
+        () -> EndArenaTrackerEquivalence::run
+    );
+
+    // Creates the check that arrows hitting endermen go through SafeTeleports, with the id "examplemod:ender_man_arrow_teleport"
+    public static final RegistryObject<Consumer<GameTestHelper>> ENDER_MAN_ARROW_TELEPORT = TEST_FUNCTIONS.register("ender_man_arrow_teleport",
+        () -> EnderManArrowTeleport::run
+    );
+
+    // Creates the ticket type with the id "examplemod:pregen" that keeps each chunk /endertime pregen is generating loaded.
+    // It times out even while the chunk is still loading, so a chunk that never finishes doesn't stay ticketed forever
+    public static final RegistryObject<TicketType> PREGEN_TICKET = TICKET_TYPES.register("pregen",
+        () -> new TicketType(EndPregenerator.TICKET_TIMEOUT, TicketType.FLAG_LOADING | TicketType.FLAG_CAN_EXPIRE_IF_UNLOADED)
+    );
+
     public ExampleMod(FMLJavaModLoadingContext context) {
         var modBusGroup = context.getModBusGroup();
 
@@ -84,6 +146,17 @@ public final class ExampleMod {
         ITEMS.register(modBusGroup);
         // Register the Deferred Register to the mod event bus so tabs get registered
         CREATIVE_MODE_TABS.register(modBusGroup);
+        // Register the Deferred Register to the mod event bus so density function types get registered
+        DENSITY_FUNCTION_TYPES.register(modBusGroup);
+        // Register the Deferred Register to the mod event bus so biome source types get registered
+        BIOME_SOURCES.register(modBusGroup);
+        // Register the Deferred Register to the mod event bus so test functions get registered
+        TEST_FUNCTIONS.register(modBusGroup);
+        // Register the Deferred Register to the mod event bus so ticket types get registered
+        TICKET_TYPES.register(modBusGroup);
+
+        // Register the messages of our network channels
+        EndStateNetwork.register();
 
         // Register the item to a creative tab
         BuildCreativeModeTabContentsEvent.getBus(modBusGroup).addListener(ExampleMod::addCreative);
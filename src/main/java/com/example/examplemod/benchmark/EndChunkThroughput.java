@@ -0,0 +1,130 @@
+package com.example.examplemod.benchmark;
+
+import com.example.examplemod.metrics.Metrics;
+import com.example.examplemod.metrics.Timer;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonObject;
+import com.mojang.logging.LogUtils;
+import net.minecraft.gametest.framework.GameTestHelper;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.util.Mth;
+import net.minecraft.world.level.ChunkPos;
+import net.minecraft.world.level.Level;
+import org.slf4j.Logger;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Macro benchmark run by {@code runGameTestServer}: generates a square of outer End chunks, keeps them
+ * force-loaded and ticking for a while, then writes chunks/sec and MSPT as JSON to {@code benchmarks/} in the
+ * server directory so numbers can be compared between mod versions.
+ * <p>
+ * The size of the run is set with the {@code examplemod.benchmark.chunks} and {@code examplemod.benchmark.ticks}
+ * system properties. MSPT is averaged over the ticking phase only, one sample per tick, so the tick that ran the
+ * generation doesn't count towards it.
+ */
+public final class EndChunkThroughput {
+    private static final Logger LOGGER = LogUtils.getLogger();
+
+    // Well past the main island, where the outer islands start generating
+    private static final ChunkPos CENTER = new ChunkPos(128, 0);
+    // Must stay below the test instance's max_ticks
+    private static final int MAX_TICKS = 5000;
+
+    private EndChunkThroughput() {}
+
+    public static void run(GameTestHelper helper) {
+        MinecraftServer server = helper.getLevel().getServer();
+        ServerLevel end = Objects.requireNonNull(server.getLevel(Level.END), "The End is not loaded");
+        int chunkCount = Math.max(1, Integer.getInteger("examplemod.benchmark.chunks", 256));
+        // At least two, since the first tick after generation only reports the generation tick
+        int ticks = Mth.clamp(Integer.getInteger("examplemod.benchmark.ticks", 200), 2, MAX_TICKS);
+        List<ChunkPos> chunks = square(chunkCount);
+
+        // Generation happens synchronously on the server thread, so this measures it end to end
+        long generationStart = System.nanoTime();
+        for (ChunkPos pos : chunks)
+            end.getChunk(pos.x, pos.z);
+        long generationNanos = System.nanoTime() - generationStart;
+
+        for (ChunkPos pos : chunks)
+            end.setChunkForced(pos.x, pos.z, true);
+
+        // Each sample is the tick before the one it is taken in
+        TickSamples samples = new TickSamples();
+        helper.onEachTick(() -> {
+            if (samples.skipped)
+                samples.add(Metrics.lastServerTickNanos());
+            samples.skipped = true;
+        });
+
+        helper.runAfterDelay(ticks, () -> {
+            for (ChunkPos pos : chunks)
+                end.setChunkForced(pos.x, pos.z, false);
+
+            JsonObject result = new JsonObject();
+            result.addProperty("chunks", chunks.size());
+            result.addProperty("generationSeconds", generationNanos / 1.0E9);
+            result.addProperty("chunksPerSecond", chunks.size() / (generationNanos / 1.0E9));
+            result.addProperty("tickedTicks", samples.count);
+            result.addProperty("mspt", samples.count == 0 ? 0.0 : samples.totalNanos / (double) samples.count / 1.0E6);
+            result.addProperty("maxMspt", samples.maxNanos / 1.0E6);
+            JsonObject timers = new JsonObject();
+            for (Timer timer : Metrics.timers()) {
+                Timer.Snapshot snapshot = timer.snapshot();
+                JsonObject json = new JsonObject();
+                json.addProperty("count", snapshot.count());
+                json.addProperty("totalNanos", snapshot.totalNanos());
+                json.addProperty("p50Nanos", snapshot.p50Nanos());
+                json.addProperty("p99Nanos", snapshot.p99Nanos());
+                json.addProperty("maxNanos", snapshot.maxNanos());
+                timers.add(snapshot.name(), json);
+            }
+            result.add("timers", timers);
+
+            write(server, result);
+            helper.succeed();
+        });
+    }
+
+    // The first count chunks of a square around CENTER, row by row
+    private static List<ChunkPos> square(int count) {
+        int side = Mth.ceil(Math.sqrt(count));
+        List<ChunkPos> chunks = new ArrayList<>(count);
+        for (int i = 0; i < count; i++)
+            chunks.add(new ChunkPos(CENTER.x - side / 2 + i % side, CENTER.z - side / 2 + i / side));
+        return chunks;
+    }
+
+    private static void write(MinecraftServer server, JsonObject result) {
+        String json = new GsonBuilder().setPrettyPrinting().create().toJson(result);
+        LOGGER.info("End chunk throughput: {}", json);
+        try {
+            Path file = server.getServerDirectory().resolve("benchmarks").resolve("end_chunk_throughput-" + System.currentTimeMillis() + ".json");
+            Files.createDirectories(file.getParent());
+            Files.writeString(file, json);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static final class TickSamples {
+        boolean skipped;
+        int count;
+        long totalNanos;
+        long maxNanos;
+
+        void add(long nanos) {
+            this.count++;
+            this.totalNanos += nanos;
+            this.maxNanos = Math.max(this.maxNanos, nanos);
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.example.examplemod.command;
+
+import com.example.examplemod.ExampleMod;
+import com.example.examplemod.metrics.Counter;
+import com.example.examplemod.metrics.Metrics;
+import com.example.examplemod.metrics.Timer;
+import com.example.examplemod.pregen.EndPregenerator;
+import com.mojang.brigadier.CommandDispatcher;
+import com.mojang.brigadier.arguments.IntegerArgumentType;
+import net.minecraft.ChatFormatting;
+import net.minecraft.commands.CommandSourceStack;
+import net.minecraft.commands.Commands;
+import net.minecraft.network.chat.Component;
+import net.minecraftforge.event.RegisterCommandsEvent;
+import net.minecraftforge.eventbus.api.listener.SubscribeEvent;
+import net.minecraftforge.fml.common.Mod;
+
+import java.util.Locale;
+
+/**
+ * The {@code /endertime} command tree.
+ */
+@Mod.EventBusSubscriber(modid = ExampleMod.MODID)
+public final class EnderTimeCommand {
+    private EnderTimeCommand() {}
+
+    @SubscribeEvent
+    static void onRegisterCommands(final RegisterCommandsEvent event) {
+        register(event.getDispatcher());
+    }
+
+    public static void register(CommandDispatcher<CommandSourceStack> dispatcher) {
+        dispatcher.register(Commands.literal("endertime")
+                .requires(source -> source.hasPermission(Commands.LEVEL_GAMEMASTERS))
+                .then(Commands.literal("profile")
+                        .executes(context -> profile(context.getSource()))
+                )
+                .then(Commands.literal("pregen")
+                        .then(Commands.literal("status")
+                                .executes(context -> reply(context.getSource(), EndPregenerator.status()))
+                        )
+                        .then(Commands.literal("stop")
+                                .executes(context -> reply(context.getSource(), EndPregenerator.stop()))
+                        )
+                        // Radius in blocks, rounded up to whole chunks
+                        .then(Commands.argument("radius", IntegerArgumentType.integer(0, 30_000_000))
+                                .executes(context -> reply(context.getSource(), EndPregenerator.start(context.getSource().getServer(),
+                                        (IntegerArgumentType.getInteger(context, "radius") + 15) / 16, context.getSource())))
+                        )
+                )
+        );
+    }
+
+    private static int profile(CommandSourceStack source) {
+        Timer.Snapshot tick = Metrics.SERVER_TICK.snapshot();
+        double mspt = tick.count() == 0L ? 0.0 : tick.totalNanos() / 1.0E6 / tick.count();
+        source.sendSuccess(() -> Component.literal(String.format(Locale.ROOT, "EnderTime profile over the last %ds: %.2f MSPT over %d ticks",
+                Metrics.windowSeconds(), mspt, tick.count())).withStyle(ChatFormatting.GOLD), false);
+
+        for (Timer timer : Metrics.timers()) {
+            if (timer == Metrics.SERVER_TICK)
+                continue;
+            Timer.Snapshot snapshot = timer.snapshot();
+            // Worldgen runs off the server thread, so its share can exceed what it costs the tick
+            double share = tick.totalNanos() == 0L ? 0.0 : 100.0 * snapshot.totalNanos() / tick.totalNanos();
+            source.sendSuccess(() -> Component.literal(String.format(Locale.ROOT, "%s: %.2f%% MSPT, %d calls, p50 %s, p99 %s, max %s",
+                    snapshot.name(), share, snapshot.count(), formatNanos(snapshot.p50Nanos()), formatNanos(snapshot.p99Nanos()),
+                    formatNanos(snapshot.maxNanos()))), false);
+        }
+
+        for (Counter counter : Metrics.counters()) {
+            source.sendSuccess(() -> Component.literal(counter.name() + ": " + counter.sum()).withStyle(ChatFormatting.GRAY), false);
+        }
+        return 1;
+    }
+
+    private static int reply(CommandSourceStack source, Component message) {
+        source.sendSuccess(() -> message, true);
+        return 1;
+    }
+
+    static String formatNanos(long nanos) {
+        if (nanos >= 1_000_000L)
+            return String.format(Locale.ROOT, "%.2fms", nanos / 1.0E6);
+        return String.format(Locale.ROOT, "%.1fus", nanos / 1.0E3);
+    }
+}
@@ -0,0 +1,234 @@
+package com.example.examplemod.dragon;
+
+import com.example.examplemod.ExampleMod;
+import com.example.examplemod.metrics.Metrics;
+import it.unimi.dsi.fastutil.longs.LongIterator;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+import it.unimi.dsi.fastutil.longs.LongSet;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.SectionPos;
+import net.minecraft.server.level.FullChunkStatus;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.level.ChunkPos;
+import net.minecraft.world.level.Level;
+import net.minecraft.world.level.block.Blocks;
+import net.minecraft.world.level.block.entity.BlockEntity;
+import net.minecraft.world.level.block.state.pattern.BlockPattern;
+import net.minecraft.world.level.chunk.LevelChunk;
+import net.minecraft.world.level.dimension.end.EndDragonFight;
+import net.minecraftforge.event.TickEvent;
+import net.minecraftforge.event.level.BlockEvent;
+import net.minecraftforge.event.level.ChunkEvent;
+import net.minecraftforge.event.level.LevelEvent;
+import net.minecraftforge.eventbus.api.listener.SubscribeEvent;
+import net.minecraftforge.fml.common.Mod;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Keeps track of the dragon arena as chunk and block events arrive, so that the exit portal and arena-loaded
+ * checks in {@link EndDragonFight} don't have to walk the 17x17 chunk arena.
+ * <p>
+ * Vanilla's private lookups can't be swapped out, so we answer them through the fight's own state:
+ * <ul>
+ *   <li>{@code isArenaLoaded} runs every tick while players are in the fight. Before the fight ticks, we set its
+ *   {@code skipArenaLoadedCheck} flag whenever the tracked arena chunks are loaded. When they aren't, vanilla
+ *   runs its own loop as before.</li>
+ *   <li>{@code tryRespawn} only searches for the portal while {@code portalLocation} is unset, so we fill that in
+ *   as soon as a tracked portal matches.</li>
+ * </ul>
+ * {@code scanState} runs once per world and is left to vanilla.
+ */
+@Mod.EventBusSubscriber(modid = ExampleMod.MODID)
+public final class EndArenaTracker {
+    // Same arena radius, in chunks, that EndDragonFight searches
+    private static final int ARENA_RADIUS = 8;
+    private static final int ARENA_WIDTH = ARENA_RADIUS * 2 + 1;
+
+    @Nullable
+    private static EndArenaTracker tracker;
+
+    private final ServerLevel level;
+    private final EndDragonFight fight;
+    private final ChunkPos originChunk;
+    // Fights that already skip the check, like those set up by vanilla's own tests, are left alone
+    private final boolean vanillaSkipsArenaCheck;
+    // Loaded arena chunks, indexed by their offset from the origin chunk
+    private final LevelChunk[] chunks = new LevelChunk[ARENA_WIDTH * ARENA_WIDTH];
+    // End portal block positions inside the arena
+    private final LongSet portals = new LongOpenHashSet();
+    // A position the exit portal pattern last matched from, checked first on every lookup
+    @Nullable
+    private BlockPos lastMatch;
+
+    private EndArenaTracker(ServerLevel level, EndDragonFight fight) {
+        this.level = level;
+        this.fight = fight;
+        this.originChunk = new ChunkPos(fight.origin);
+        this.vanillaSkipsArenaCheck = fight.skipArenaLoadedCheck;
+    }
+
+    /**
+     * The tracker for {@code level}'s dragon fight, or null if it isn't the End or has no fight.
+     */
+    @Nullable
+    public static EndArenaTracker get(ServerLevel level) {
+        return forLevel(level);
+    }
+
+    @Nullable
+    private static EndArenaTracker forLevel(Object level) {
+        if (!(level instanceof ServerLevel serverLevel) || serverLevel.dimension() != Level.END)
+            return null;
+        EndDragonFight fight = serverLevel.getDragonFight();
+        if (fight == null)
+            return null;
+        if (tracker == null || tracker.level != serverLevel || tracker.fight != fight)
+            tracker = new EndArenaTracker(serverLevel, fight);
+        return tracker;
+    }
+
+    @SubscribeEvent
+    static void onChunkLoad(final ChunkEvent.Load event) {
+        EndArenaTracker arena = forLevel(event.getLevel());
+        if (arena != null && event.getChunk() instanceof LevelChunk chunk)
+            arena.chunkLoaded(chunk);
+    }
+
+    @SubscribeEvent
+    static void onChunkUnload(final ChunkEvent.Unload event) {
+        EndArenaTracker arena = forLevel(event.getLevel());
+        if (arena != null && event.getChunk() instanceof LevelChunk chunk)
+            arena.chunkUnloaded(chunk);
+    }
+
+    @SubscribeEvent
+    static void onBlockChanged(final BlockEvent.NeighborNotifyEvent event) {
+        EndArenaTracker arena = forLevel(event.getLevel());
+        if (arena != null)
+            arena.blockChanged(event.getPos(), event.getState().is(Blocks.END_PORTAL));
+    }
+
+    @SubscribeEvent
+    static void onLevelTickPre(final TickEvent.LevelTickEvent.Pre event) {
+        EndArenaTracker arena = forLevel(event.level());
+        if (arena != null) {
+            long start = System.nanoTime();
+            arena.beforeFightTick();
+            Metrics.DRAGON_FIGHT_ARENA.stop(start);
+        }
+    }
+
+    @SubscribeEvent
+    static void onLevelTick(final TickEvent.LevelTickEvent.Post event) {
+        EndArenaTracker arena = forLevel(event.level());
+        if (arena != null) {
+            long start = System.nanoTime();
+            arena.tick();
+            Metrics.DRAGON_FIGHT_ARENA.stop(start);
+        }
+    }
+
+    @SubscribeEvent
+    static void onLevelUnload(final LevelEvent.Unload event) {
+        if (tracker != null && tracker.level == event.getLevel())
+            tracker = null;
+    }
+
+    /**
+     * Constant-time equivalent of {@code EndDragonFight.isArenaLoaded}.
+     * <p>
+     * Vanilla's loop only ever looks at the row of chunks 8 chunks south of the origin, and this deliberately
+     * checks exactly the same chunks so the fight behaves the same with and without the mod.
+     */
+    public boolean isArenaLoaded() {
+        for (int dx = -ARENA_RADIUS; dx <= ARENA_RADIUS; dx++) {
+            LevelChunk chunk = this.chunks[index(dx, ARENA_RADIUS)];
+            if (chunk == null || !chunk.getFullStatus().isOrAfter(FullChunkStatus.BLOCK_TICKING))
+                return false;
+        }
+        return true;
+    }
+
+    /**
+     * The exit portal, matched from the tracked portal blocks alone. This finds the same active exit portal as the
+     * block entity walk in {@code EndDragonFight.findExitPortal}, but it never falls back to that method's column
+     * scan for an inactive podium, so it is cheap enough to call every tick.
+     */
+    @Nullable
+    public BlockPattern.BlockPatternMatch findExitPortal() {
+        if (this.lastMatch != null) {
+            BlockPattern.BlockPatternMatch match = this.fight.exitPortalPattern.find(this.level, this.lastMatch);
+            if (match != null)
+                return match;
+            this.lastMatch = null;
+        }
+
+        for (LongIterator it = this.portals.iterator(); it.hasNext(); ) {
+            BlockPos pos = BlockPos.of(it.nextLong());
+            BlockPattern.BlockPatternMatch match = this.fight.exitPortalPattern.find(this.level, pos);
+            if (match != null) {
+                this.lastMatch = pos;
+                return match;
+            }
+        }
+        return null;
+    }
+
+    // Runs before the level ticks the fight. The flag that skips vanilla's isArenaLoaded loop also makes
+    // hasActiveExitPortal return true, so it is only set once state scanning is over, which is the only time
+    // that method is called. It is also only set while the fight had players last tick. Its DRAGON ticket is
+    // held then, so no arena chunk can drop below BLOCK_TICKING between now and the fight's tick.
+    private void beforeFightTick() {
+        if (this.vanillaSkipsArenaCheck)
+            return;
+        this.fight.skipArenaLoadedCheck = !this.fight.needsStateScanning && !this.fight.dragonEvent.getPlayers().isEmpty()
+                && isArenaLoaded();
+    }
+
+    private void tick() {
+        // Only once a portal has been seen, so a fresh End doesn't pattern-match every tick
+        if (this.fight.portalLocation == null && !this.portals.isEmpty()) {
+            BlockPattern.BlockPatternMatch match = findExitPortal();
+            if (match != null)
+                this.fight.portalLocation = match.getBlock(3, 3, 3).getPos();
+        }
+    }
+
+    private void chunkLoaded(LevelChunk chunk) {
+        ChunkPos pos = chunk.getPos();
+        int index = index(pos.x - this.originChunk.x, pos.z - this.originChunk.z);
+        if (index < 0)
+            return;
+        this.chunks[index] = chunk;
+        for (BlockEntity blockEntity : chunk.getBlockEntities().values()) {
+            if (blockEntity.getBlockState().is(Blocks.END_PORTAL))
+                this.portals.add(blockEntity.getBlockPos().asLong());
+        }
+    }
+
+    private void chunkUnloaded(LevelChunk chunk) {
+        ChunkPos pos = chunk.getPos();
+        int index = index(pos.x - this.originChunk.x, pos.z - this.originChunk.z);
+        if (index < 0)
+            return;
+        this.chunks[index] = null;
+        this.portals.removeIf((long portal) -> SectionPos.blockToSectionCoord(BlockPos.getX(portal)) == pos.x
+                && SectionPos.blockToSectionCoord(BlockPos.getZ(portal)) == pos.z);
+    }
+
+    private void blockChanged(BlockPos pos, boolean isPortal) {
+        if (index(SectionPos.blockToSectionCoord(pos.getX()) - this.originChunk.x, SectionPos.blockToSectionCoord(pos.getZ()) - this.originChunk.z) < 0)
+            return;
+        if (isPortal)
+            this.portals.add(pos.asLong());
+        else
+            this.portals.remove(pos.asLong());
+    }
+
+    // Index into chunks for a chunk offset from the origin, or -1 outside the arena
+    private static int index(int dx, int dz) {
+        if (dx < -ARENA_RADIUS || dx > ARENA_RADIUS || dz < -ARENA_RADIUS || dz > ARENA_RADIUS)
+            return -1;
+        return (dx + ARENA_RADIUS) * ARENA_WIDTH + dz + ARENA_RADIUS;
+    }
+}
@@ -0,0 +1,71 @@
+package com.example.examplemod.gametest;
+
+import com.example.examplemod.dragon.EndArenaTracker;
+import net.minecraft.core.BlockPos;
+import net.minecraft.gametest.framework.GameTestHelper;
+import net.minecraft.network.chat.Component;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.level.ChunkPos;
+import net.minecraft.world.level.Level;
+import net.minecraft.world.level.block.state.pattern.BlockPattern;
+import net.minecraft.world.level.dimension.end.EndDragonFight;
+
+import java.util.Objects;
+
+/**
+ * Checks that {@link EndArenaTracker} agrees with vanilla's own {@code isArenaLoaded} and {@code findExitPortal}
+ * on the test server's End. The arena is force-loaded, an active exit portal is placed, and both lookups are
+ * compared.
+ */
+public final class EndArenaTrackerEquivalence {
+    // Same arena radius, in chunks, that EndDragonFight searches
+    private static final int ARENA_RADIUS = 8;
+
+    private EndArenaTrackerEquivalence() {}
+
+    public static void run(GameTestHelper helper) {
+        ServerLevel end = Objects.requireNonNull(helper.getLevel().getServer().getLevel(Level.END), "The End is not loaded");
+        EndDragonFight fight = Objects.requireNonNull(end.getDragonFight(), "The End has no dragon fight");
+        EndArenaTracker tracker = Objects.requireNonNull(EndArenaTracker.get(end), "No arena tracker for the End");
+        ChunkPos origin = new ChunkPos(fight.origin);
+        forceArena(end, origin, true);
+
+        helper.startSequence()
+                // Forced chunks take a few ticks to reach BLOCK_TICKING
+                .thenWaitUntil(() -> helper.assertTrue(vanillaArenaLoaded(fight), Component.literal("Arena is still loading")))
+                .thenExecute(() -> {
+                    helper.assertTrue(tracker.isArenaLoaded(), Component.literal("Tracker doesn't see the arena as loaded but vanilla does"));
+                    fight.spawnExitPortal(true);
+                })
+                .thenExecute(() -> {
+                    helper.assertTrue(tracker.isArenaLoaded() == vanillaArenaLoaded(fight), Component.literal("Arena loaded checks differ"));
+                    BlockPattern.BlockPatternMatch vanilla = fight.findExitPortal();
+                    BlockPattern.BlockPatternMatch tracked = tracker.findExitPortal();
+                    helper.assertTrue(vanilla != null, Component.literal("Vanilla found no exit portal"));
+                    helper.assertTrue(tracked != null, Component.literal("Tracker found no exit portal"));
+                    BlockPos expected = vanilla.getBlock(3, 3, 3).getPos();
+                    BlockPos actual = tracked.getBlock(3, 3, 3).getPos();
+                    helper.assertTrue(expected.equals(actual), Component.literal("Exit portal at " + actual + ", vanilla has " + expected));
+                })
+                .thenExecute(() -> forceArena(end, origin, false))
+                .thenSucceed();
+    }
+
+    // Vanilla's check, with the shortcut the tracker may have turned on out of the way
+    private static boolean vanillaArenaLoaded(EndDragonFight fight) {
+        boolean skip = fight.skipArenaLoadedCheck;
+        fight.skipArenaLoadedCheck = false;
+        try {
+            return fight.isArenaLoaded();
+        } finally {
+            fight.skipArenaLoadedCheck = skip;
+        }
+    }
+
+    private static void forceArena(ServerLevel end, ChunkPos origin, boolean forced) {
+        for (int dx = -ARENA_RADIUS; dx <= ARENA_RADIUS; dx++) {
+            for (int dz = -ARENA_RADIUS; dz <= ARENA_RADIUS; dz++)
+                end.setChunkForced(origin.x + dx, origin.z + dz, forced);
+        }
+    }
+}
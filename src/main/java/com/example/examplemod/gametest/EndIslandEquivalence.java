@@ -0,0 +1,81 @@
+package com.example.examplemod.gametest;
+
+import com.example.examplemod.worldgen.CachedEndIslandDensityFunction;
+import net.minecraft.gametest.framework.GameTestHelper;
+import net.minecraft.network.chat.Component;
+import net.minecraft.world.level.levelgen.DensityFunction;
+import net.minecraft.world.level.levelgen.DensityFunctions;
+
+import java.util.Locale;
+
+/**
+ * Checks that {@link CachedEndIslandDensityFunction} gives bit-for-bit the same values as vanilla's
+ * {@code end_islands}, through both {@code compute} and {@code fillArray}, over a grid of seeds and coordinates.
+ * <p>
+ * The coordinates cover the main island, both sides of 0 (where integer division rounds towards zero), tile
+ * edges, and the outer islands out to the world border.
+ */
+public final class EndIslandEquivalence {
+    private static final long[] SEEDS = {0L, 1L, -1L, 42L, 8675309L, Long.MIN_VALUE, Long.MAX_VALUE};
+    // Block coordinates each grid is centred on
+    private static final int[][] CENTERS = {{0, 0}, {1024, -1024}, {-20_000, 35_000}, {29_999_000, -29_999_000}};
+    // A 32x32 grid with a 5 block step, so samples fall on every remainder of a cell and cross tile edges
+    private static final int GRID = 32;
+    private static final int STEP = 5;
+
+    private EndIslandEquivalence() {}
+
+    public static void run(GameTestHelper helper) {
+        DensityFunction.FunctionContext[] points = points();
+        double[] expected = new double[points.length];
+        double[] actual = new double[points.length];
+        DensityFunction.ContextProvider provider = new Points(points);
+
+        for (long seed : SEEDS) {
+            DensityFunction vanilla = DensityFunctions.endIslands(seed);
+            CachedEndIslandDensityFunction cached = new CachedEndIslandDensityFunction(seed);
+            for (int i = 0; i < points.length; i++)
+                expected[i] = vanilla.compute(points[i]);
+
+            for (int i = 0; i < points.length; i++)
+                check(helper, seed, points[i], "compute", expected[i], cached.compute(points[i]));
+
+            // A fresh instance, so fillArray builds its own tiles rather than reading ones compute left behind
+            new CachedEndIslandDensityFunction(seed).fillArray(actual, provider);
+            for (int i = 0; i < points.length; i++)
+                check(helper, seed, points[i], "fillArray", expected[i], actual[i]);
+        }
+        helper.succeed();
+    }
+
+    private static DensityFunction.FunctionContext[] points() {
+        DensityFunction.FunctionContext[] points = new DensityFunction.FunctionContext[CENTERS.length * GRID * GRID];
+        int i = 0;
+        for (int[] center : CENTERS) {
+            for (int z = 0; z < GRID; z++) {
+                for (int x = 0; x < GRID; x++)
+                    points[i++] = new DensityFunction.SinglePointContext(center[0] + (x - GRID / 2) * STEP, 64, center[1] + (z - GRID / 2) * STEP);
+            }
+        }
+        return points;
+    }
+
+    private static void check(GameTestHelper helper, long seed, DensityFunction.FunctionContext point, String path, double expected, double actual) {
+        if (Double.doubleToRawLongBits(expected) != Double.doubleToRawLongBits(actual))
+            helper.fail(Component.literal(String.format(Locale.ROOT, "%s differs from vanilla for seed %d at %d, %d: expected %s, got %s",
+                    path, seed, point.blockX(), point.blockZ(), expected, actual)));
+    }
+
+    private record Points(DensityFunction.FunctionContext[] points) implements DensityFunction.ContextProvider {
+        @Override
+        public DensityFunction.FunctionContext forIndex(int index) {
+            return this.points[index];
+        }
+
+        @Override
+        public void fillAllDirectly(double[] values, DensityFunction function) {
+            for (int i = 0; i < values.length; i++)
+                values[i] = function.compute(this.points[i]);
+        }
+    }
+}
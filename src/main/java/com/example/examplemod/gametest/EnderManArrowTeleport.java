@@ -0,0 +1,49 @@
+package com.example.examplemod.gametest;
+
+import com.example.examplemod.metrics.Metrics;
+import com.example.examplemod.teleport.SafeTeleports;
+import net.minecraft.core.BlockPos;
+import net.minecraft.gametest.framework.GameTestHelper;
+import net.minecraft.network.chat.Component;
+import net.minecraft.world.entity.EntityType;
+import net.minecraft.world.entity.monster.EnderMan;
+import net.minecraft.world.entity.projectile.Arrow;
+import net.minecraft.world.item.ItemStack;
+import net.minecraft.world.item.Items;
+import net.minecraft.world.phys.Vec3;
+
+/**
+ * Checks that an arrow hitting an enderman goes through {@link SafeTeleports}, and that the enderman dodges it by
+ * teleporting, unhurt and within vanilla's range.
+ */
+public final class EnderManArrowTeleport {
+    private EnderManArrowTeleport() {}
+
+    public static void run(GameTestHelper helper) {
+        EnderMan enderMan = helper.spawn(EntityType.ENDERMAN, new BlockPos(1, 2, 1));
+        enderMan.setNoAi(true);
+        long teleports = Metrics.TELEPORT_CACHE_HITS.sum() + Metrics.TELEPORT_CACHE_MISSES.sum();
+        Vec3 start = enderMan.position();
+
+        // Fired from four blocks away, straight at the enderman's chest
+        Vec3 from = enderMan.position().add(4.0, 1.5, 0.0);
+        Vec3 target = enderMan.position().add(0.0, 1.5, 0.0);
+        Arrow arrow = new Arrow(helper.getLevel(), from.x, from.y, from.z, new ItemStack(Items.ARROW), null);
+        arrow.shoot(target.x - from.x, target.y - from.y, target.z - from.z, 1.5F, 0.0F);
+        helper.getLevel().addFreshEntity(arrow);
+
+        helper.startSequence()
+                .thenWaitUntil(() -> helper.assertTrue(Metrics.TELEPORT_CACHE_HITS.sum() + Metrics.TELEPORT_CACHE_MISSES.sum() > teleports,
+                        Component.literal("The arrow hit never reached SafeTeleports")))
+                .thenExecute(() -> {
+                    helper.assertTrue(enderMan.getHealth() == enderMan.getMaxHealth(), Component.literal("The enderman took damage from the arrow"));
+                    // Vanilla leaves health full too when every attempt fails, so the move is what shows the dodge
+                    Vec3 end = enderMan.position();
+                    helper.assertTrue(end.distanceToSqr(start) > 1.0, Component.literal("The enderman didn't teleport"));
+                    helper.assertTrue(Math.abs(end.x - start.x) <= 32.5 && Math.abs(end.z - start.z) <= 32.5,
+                            Component.literal("The enderman teleported out of vanilla's range, to " + end));
+                })
+                .thenExecute(enderMan::discard)
+                .thenSucceed();
+    }
+}
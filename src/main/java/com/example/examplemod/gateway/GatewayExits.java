@@ -0,0 +1,132 @@
+package com.example.examplemod.gateway;
+
+import com.example.examplemod.ExampleMod;
+import com.example.examplemod.metrics.Metrics;
+import com.mojang.logging.LogUtils;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.SectionPos;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.server.level.ServerPlayer;
+import net.minecraft.world.entity.PortalProcessor;
+import net.minecraft.world.level.Level;
+import net.minecraft.world.level.block.Blocks;
+import net.minecraft.world.level.block.entity.TheEndGatewayBlockEntity;
+import net.minecraft.world.level.chunk.LevelChunk;
+import net.minecraft.world.level.levelgen.Heightmap;
+import net.minecraft.world.level.levelgen.feature.configurations.EndGatewayConfiguration;
+import net.minecraftforge.event.TickEvent;
+import net.minecraftforge.event.level.ChunkEvent;
+import net.minecraftforge.eventbus.api.listener.SubscribeEvent;
+import net.minecraftforge.fml.common.Mod;
+import org.slf4j.Logger;
+
+/**
+ * Answers End gateway exits from the {@link GatewayLandingIndex} before vanilla gets to its synchronous chunk walk.
+ * <p>
+ * Vanilla only searches for an exit while {@code exitPortal} is still unset, so resolving it a tick early from
+ * the index is enough to skip the search. When the index has nothing for a gateway's bearing we leave it alone
+ * and vanilla's search runs as before.
+ */
+@Mod.EventBusSubscriber(modid = ExampleMod.MODID)
+public final class GatewayExits {
+    private static final Logger LOGGER = LogUtils.getLogger();
+    // Vanilla looks for the tallest block 16 blocks either side of the landing spot
+    private static final int EXIT_SEARCH_RADIUS = 16;
+
+    private GatewayExits() {}
+
+    public static GatewayLandingIndex index(ServerLevel level) {
+        return level.getDataStorage().computeIfAbsent(GatewayLandingIndex.TYPE);
+    }
+
+    @SubscribeEvent
+    static void onChunkLoad(final ChunkEvent.Load event) {
+        // Only freshly generated chunks can add new landing spots; everything older is already in the saved index
+        if (event.isNewChunk() && event.getLevel() instanceof ServerLevel level && level.dimension() == Level.END
+                && event.getChunk() instanceof LevelChunk chunk)
+            index(level).record(chunk);
+    }
+
+    @SubscribeEvent
+    static void onLevelTick(final TickEvent.LevelTickEvent.Post event) {
+        if (!(event.level() instanceof ServerLevel level) || level.dimension() != Level.END)
+            return;
+
+        // Entities that touched a gateway this tick will ask it for an exit at the start of next tick
+        for (ServerPlayer player : level.players()) {
+            PortalProcessor portal = player.portalProcess;
+            if (portal != null && level.getBlockEntity(portal.getEntryPosition()) instanceof TheEndGatewayBlockEntity gateway
+                    && gateway.exitPortal == null)
+                resolve(level, gateway);
+        }
+    }
+
+    /**
+     * Gives {@code gateway} an exit from the index, mirroring what vanilla's {@code getPortalPosition} does once it
+     * has found a landing spot. Returns false, leaving the gateway untouched, on an index miss.
+     */
+    public static boolean resolve(ServerLevel level, TheEndGatewayBlockEntity gateway) {
+        long start = System.nanoTime();
+        try {
+            return resolveFromIndex(level, gateway);
+        } finally {
+            Metrics.GATEWAY_EXIT.stop(start);
+        }
+    }
+
+    private static boolean resolveFromIndex(ServerLevel level, TheEndGatewayBlockEntity gateway) {
+        GatewayLandingIndex index = index(level);
+        long landing = index.find(gateway.getBlockPos());
+        if (landing != GatewayLandingIndex.EMPTY && isStale(level, landing)) {
+            index.forget(landing);
+            landing = GatewayLandingIndex.EMPTY;
+        }
+        if (landing == GatewayLandingIndex.EMPTY) {
+            Metrics.GATEWAY_INDEX_MISSES.increment();
+            return false;
+        }
+
+        Metrics.GATEWAY_INDEX_HITS.increment();
+        // Vanilla puts the exit above the tallest block around the landing spot, not above the spot itself
+        BlockPos exit = findTallestBlock(level, BlockPos.of(landing)).above(10);
+        LOGGER.debug("Creating portal at {} from gateway landing index", exit);
+        TheEndGatewayBlockEntity.spawnGatewayPortal(level, exit, EndGatewayConfiguration.knownExit(gateway.getBlockPos(), false));
+        gateway.setExitPosition(exit, gateway.exactTeleport);
+        return true;
+    }
+
+    // Same result as vanilla's findTallestBlock(level, pos, 16, true), but each column is walked down from its
+    // WORLD_SURFACE height instead of the top of the world. Nothing above that height can be a full block. Like
+    // vanilla, this loads the chunks around the spot, and the spot's own column is skipped.
+    private static BlockPos findTallestBlock(ServerLevel level, BlockPos pos) {
+        BlockPos tallest = null;
+        BlockPos.MutableBlockPos probe = new BlockPos.MutableBlockPos();
+        for (int dx = -EXIT_SEARCH_RADIUS; dx <= EXIT_SEARCH_RADIUS; dx++) {
+            for (int dz = -EXIT_SEARCH_RADIUS; dz <= EXIT_SEARCH_RADIUS; dz++) {
+                if (dx == 0 && dz == 0)
+                    continue;
+                int x = pos.getX() + dx;
+                int z = pos.getZ() + dz;
+                // Level.getHeight reports the bottom of the world for unloaded chunks, so ask the chunk itself
+                LevelChunk chunk = level.getChunk(SectionPos.blockToSectionCoord(x), SectionPos.blockToSectionCoord(z));
+                int floor = tallest == null ? level.getMinY() : tallest.getY();
+                for (int y = chunk.getHeight(Heightmap.Types.WORLD_SURFACE, x, z) - 1; y > floor; y--) {
+                    if (chunk.getBlockState(probe.set(x, y, z)).isCollisionShapeFullBlock(chunk, probe)) {
+                        tallest = probe.immutable();
+                        break;
+                    }
+                }
+            }
+        }
+        return tallest == null ? pos : tallest;
+    }
+
+    // The exit search loads the spot's chunk anyway, so it is loaded for the check as well
+    private static boolean isStale(ServerLevel level, long landing) {
+        BlockPos pos = BlockPos.of(landing);
+        LevelChunk chunk = level.getChunk(SectionPos.blockToSectionCoord(pos.getX()), SectionPos.blockToSectionCoord(pos.getZ()));
+        return !chunk.getBlockState(pos).is(Blocks.END_STONE)
+                || chunk.getBlockState(pos.above()).isCollisionShapeFullBlock(chunk, pos.above())
+                || chunk.getBlockState(pos.above(2)).isCollisionShapeFullBlock(chunk, pos.above(2));
+    }
+}
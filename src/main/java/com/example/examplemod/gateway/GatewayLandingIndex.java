@@ -0,0 +1,134 @@
+package com.example.examplemod.gateway;
+
+import com.mojang.serialization.Codec;
+import net.minecraft.core.BlockPos;
+import net.minecraft.util.Mth;
+import net.minecraft.world.level.ChunkPos;
+import net.minecraft.world.level.block.Blocks;
+import net.minecraft.world.level.chunk.LevelChunk;
+import net.minecraft.world.level.levelgen.Heightmap;
+import net.minecraft.world.level.saveddata.SavedData;
+import net.minecraft.world.level.saveddata.SavedDataType;
+
+import java.util.Arrays;
+
+/**
+ * Per-dimension index of end stone landing spots, bucketed by bearing from the world origin.
+ * <p>
+ * Each sector remembers the landing spot nearest to the origin within the band vanilla's ray walk in
+ * {@code findExitPortalXZPosTentative} can end up in, which is the chunk that walk would find. Spots outside the
+ * band are never indexed, so a bearing whose band hasn't been generated yet is a miss and vanilla searches.
+ * <p>
+ * Within a chunk the spot is picked like vanilla's {@code findValidSpawnInChunk}, by 3D distance from the origin,
+ * but only among the top block of each column; vanilla also considers end stone under overhangs. Between chunks
+ * the horizontally nearer one wins, standing in for the ray walk reaching it first.
+ */
+public class GatewayLandingIndex extends SavedData {
+    public static final Codec<GatewayLandingIndex> CODEC = Codec.LONG_STREAM.xmap(
+            stream -> new GatewayLandingIndex(stream.toArray()),
+            index -> Arrays.stream(index.sectors)
+    );
+    public static final SavedDataType<GatewayLandingIndex> TYPE = new SavedDataType<>(
+            "examplemod_gateway_landings", () -> new GatewayLandingIndex(), CODEC, null
+    );
+
+    // One sector is ~18 blocks wide at 1024 blocks out, about the width of the chunk vanilla would pick
+    static final int SECTORS = 360;
+    // Vanilla starts at 1024 blocks and may walk up to 16 chunks back towards the origin
+    static final int MIN_EXIT_DISTANCE = 1024 - 16 * 16;
+    // ...or up to 16 chunks forward, away from it
+    static final int MAX_EXIT_DISTANCE = 1024 + 16 * 16;
+    // Vanilla only considers end stone from y=30 upwards
+    private static final int MIN_LANDING_Y = 30;
+    static final long EMPTY = Long.MAX_VALUE;
+
+    private final long[] sectors;
+
+    public GatewayLandingIndex() {
+        this.sectors = new long[SECTORS];
+        Arrays.fill(this.sectors, EMPTY);
+    }
+
+    private GatewayLandingIndex(long[] sectors) {
+        this();
+        // Tolerate a sector count change between versions by starting over
+        if (sectors.length == SECTORS)
+            System.arraycopy(sectors, 0, this.sectors, 0, SECTORS);
+    }
+
+    /**
+     * Scans the surface of a freshly generated chunk and keeps its best landing spot if it beats the one
+     * already known for its sector. This only reads the WORLD_SURFACE heightmap, so it is 256 lookups per chunk
+     * rather than vanilla's full block scan.
+     */
+    public void record(LevelChunk chunk) {
+        ChunkPos chunkPos = chunk.getPos();
+        BlockPos.MutableBlockPos pos = new BlockPos.MutableBlockPos();
+        long best = EMPTY;
+        double bestDistance = Double.MAX_VALUE;
+
+        for (int x = chunkPos.getMinBlockX(); x <= chunkPos.getMaxBlockX(); x++) {
+            for (int z = chunkPos.getMinBlockZ(); z <= chunkPos.getMaxBlockZ(); z++) {
+                if (!isInBand(x, z))
+                    continue;
+                // The top block of a column always has air above it, so it passes vanilla's headroom check
+                int y = chunk.getHeight(Heightmap.Types.WORLD_SURFACE, x, z);
+                if (y < MIN_LANDING_Y || !chunk.getBlockState(pos.set(x, y, z)).is(Blocks.END_STONE))
+                    continue;
+                double distance = pos.distToCenterSqr(0.0, 0.0, 0.0);
+                if (distance < bestDistance) {
+                    best = pos.asLong();
+                    bestDistance = distance;
+                }
+            }
+        }
+
+        if (best != EMPTY)
+            offer(best);
+    }
+
+    /**
+     * The landing spot on the same bearing as {@code gateway}, or {@link #EMPTY} if none has been indexed yet.
+     */
+    public long find(BlockPos gateway) {
+        long landing = this.sectors[sector(gateway.getX(), gateway.getZ())];
+        // Indexes saved before the band had an upper bound may still hold spots further out
+        return landing == EMPTY || isInBand(BlockPos.getX(landing), BlockPos.getZ(landing)) ? landing : EMPTY;
+    }
+
+    /**
+     * Drops a spot that turned out to be stale, for example because it has been mined away.
+     */
+    public void forget(long landing) {
+        int sector = sector(BlockPos.getX(landing), BlockPos.getZ(landing));
+        if (this.sectors[sector] == landing) {
+            this.sectors[sector] = EMPTY;
+            setDirty();
+        }
+    }
+
+    private void offer(long landing) {
+        int x = BlockPos.getX(landing);
+        int z = BlockPos.getZ(landing);
+        int sector = sector(x, z);
+        long current = this.sectors[sector];
+        if (current == EMPTY || horizontalDistanceSqr(x, z) < horizontalDistanceSqr(BlockPos.getX(current), BlockPos.getZ(current))) {
+            this.sectors[sector] = landing;
+            setDirty();
+        }
+    }
+
+    private static int sector(int x, int z) {
+        double turns = (Mth.atan2(z, x) + Math.PI) / (Math.PI * 2.0);
+        return Mth.clamp((int) (turns * SECTORS), 0, SECTORS - 1);
+    }
+
+    private static boolean isInBand(int x, int z) {
+        long distance = horizontalDistanceSqr(x, z);
+        return distance >= (long) MIN_EXIT_DISTANCE * MIN_EXIT_DISTANCE && distance <= (long) MAX_EXIT_DISTANCE * MAX_EXIT_DISTANCE;
+    }
+
+    private static long horizontalDistanceSqr(int x, int z) {
+        return (long) x * x + (long) z * z;
+    }
+}
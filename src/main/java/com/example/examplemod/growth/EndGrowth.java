@@ -0,0 +1,113 @@
+package com.example.examplemod.growth;
+
+import com.example.examplemod.Config;
+import com.example.examplemod.ExampleMod;
+import com.example.examplemod.metrics.Metrics;
+import net.minecraft.core.BlockPos;
+import net.minecraft.resources.ResourceKey;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.level.Level;
+import net.minecraft.world.level.block.Blocks;
+import net.minecraft.world.level.block.state.BlockState;
+import net.minecraftforge.common.util.Result;
+import net.minecraftforge.event.TickEvent;
+import net.minecraftforge.event.level.BlockEvent;
+import net.minecraftforge.event.level.ChunkEvent;
+import net.minecraftforge.event.level.LevelEvent;
+import net.minecraftforge.eventbus.api.listener.SubscribeEvent;
+import net.minecraftforge.fml.common.Mod;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Moves chorus flower growth off the random tick and onto each level's {@link GrowthScheduler}, and is where
+ * the mod's own End flora queue their growth.
+ * <p>
+ * All schedulers share one {@code growthTickBudgetMicros} budget per server tick, used up in the order the
+ * levels tick. Each scheduler still runs at least one task per tick, so a level late in the order isn't starved.
+ */
+@Mod.EventBusSubscriber(modid = ExampleMod.MODID)
+public final class EndGrowth {
+    private static final Map<ResourceKey<Level>, GrowthScheduler> SCHEDULERS = new HashMap<>();
+
+    // Runs the vanilla chorus random tick, which by then only sees its own growth event pass through. Vanilla
+    // chorus growth places its blocks with UPDATE_CLIENTS only, so it has no neighbour updates to merge
+    private static final GrowthTask CHORUS_FLOWER = (level, pos, random, neighborUpdates) -> {
+        BlockState state = level.getBlockState(pos);
+        if (!state.is(Blocks.CHORUS_FLOWER))
+            return;
+        EndGrowth.runningChorus = true;
+        try {
+            state.randomTick(level, pos, random);
+        } finally {
+            EndGrowth.runningChorus = false;
+        }
+    };
+
+    private static boolean runningChorus;
+    // What is left of this server tick's growth budget
+    private static long budgetLeftNanos;
+
+    private EndGrowth() {}
+
+    public static GrowthScheduler scheduler(ServerLevel level) {
+        return SCHEDULERS.computeIfAbsent(level.dimension(), key -> new GrowthScheduler(level));
+    }
+
+    /**
+     * Queues {@code task} on the level's scheduler, or runs it straight away if the queue is full.
+     */
+    public static void schedule(ServerLevel level, BlockPos pos, GrowthTask task) {
+        GrowthScheduler scheduler = scheduler(level);
+        if (!scheduler.schedule(pos, task, Config.growthMaxQueued))
+            scheduler.runNow(pos, task);
+    }
+
+    @SubscribeEvent
+    static void onCropGrow(final BlockEvent.CropGrowEvent.Pre event) {
+        // Chorus flowers fire the event for the block above them, with their own state
+        if (runningChorus || !event.getState().is(Blocks.CHORUS_FLOWER) || !(event.getLevel() instanceof ServerLevel level))
+            return;
+        BlockPos flower = event.getPos().below();
+        if (level.getBlockState(flower) != event.getState())
+            return;
+        // When the queue is full the flower just grows now, as in vanilla
+        if (scheduler(level).schedule(flower, CHORUS_FLOWER, Config.growthMaxQueued))
+            event.setResult(Result.DENY);
+    }
+
+    @SubscribeEvent
+    static void onServerTick(final TickEvent.ServerTickEvent.Pre event) {
+        budgetLeftNanos = Config.growthTickBudgetMicros * 1000L;
+    }
+
+    @SubscribeEvent
+    static void onLevelTick(final TickEvent.LevelTickEvent.Post event) {
+        if (event.level() instanceof ServerLevel level) {
+            GrowthScheduler scheduler = SCHEDULERS.get(level.dimension());
+            if (scheduler != null && scheduler.size() > 0) {
+                long start = System.nanoTime();
+                Metrics.GROWTH_TASKS_RUN.add(scheduler.tick(Math.max(0L, budgetLeftNanos)));
+                long elapsed = System.nanoTime() - start;
+                budgetLeftNanos -= elapsed;
+                Metrics.GROWTH.record(elapsed);
+            }
+        }
+    }
+
+    @SubscribeEvent
+    static void onChunkUnload(final ChunkEvent.Unload event) {
+        if (event.getLevel() instanceof ServerLevel level) {
+            GrowthScheduler scheduler = SCHEDULERS.get(level.dimension());
+            if (scheduler != null)
+                scheduler.chunkUnloaded(event.getChunk().getPos());
+        }
+    }
+
+    @SubscribeEvent
+    static void onLevelUnload(final LevelEvent.Unload event) {
+        if (event.getLevel() instanceof ServerLevel level)
+            SCHEDULERS.remove(level.dimension());
+    }
+}
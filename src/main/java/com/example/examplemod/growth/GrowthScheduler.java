@@ -0,0 +1,170 @@
+package com.example.examplemod.growth;
+
+import it.unimi.dsi.fastutil.longs.Long2ObjectLinkedOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongIterator;
+import it.unimi.dsi.fastutil.longs.LongLinkedOpenHashSet;
+import it.unimi.dsi.fastutil.objects.ObjectIterator;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.SectionPos;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.util.RandomSource;
+import net.minecraft.world.level.ChunkPos;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Queues growth work per chunk section and runs it in batches under a per-tick time budget.
+ * <p>
+ * Work is run in the order it was queued, one section at a time, and whatever doesn't fit in a tick's budget
+ * carries over to the next. Since each task's random source only depends on its position and the tick it was
+ * queued on, the budget changes when growth happens but not what grows.
+ * <p>
+ * Tasks only run while their chunk still random-ticks. Tasks in chunks that stop ticking are dropped, just as
+ * the random tick that queued them would not have happened there.
+ */
+public class GrowthScheduler {
+    private final ServerLevel level;
+    // Pending tasks by section, and by block position inside each section; both keep insertion order
+    private final Long2ObjectLinkedOpenHashMap<Long2ObjectLinkedOpenHashMap<Pending>> sections = new Long2ObjectLinkedOpenHashMap<>();
+    // Tasks queued by other tasks while a batch runs, merged in once it is done so the queue isn't changed mid-iteration
+    private final List<Deferred> deferred = new ArrayList<>();
+    private final NeighborUpdates neighborUpdates = new NeighborUpdates();
+    private final RandomSource random = RandomSource.create();
+    // Separate from random, as runNow can be called from inside a running task
+    private final RandomSource runNowRandom = RandomSource.create();
+    private boolean running;
+    private int size;
+
+    public GrowthScheduler(ServerLevel level) {
+        this.level = level;
+    }
+
+    public int size() {
+        return this.size;
+    }
+
+    /**
+     * Queues {@code task} to run at {@code pos}. A position that already has a task queued keeps the first one,
+     * since a block can only grow once per attempt anyway.
+     *
+     * @return false if the queue is full and the caller should grow the block itself
+     */
+    public boolean schedule(BlockPos pos, GrowthTask task, int maxQueued) {
+        if (this.size >= maxQueued)
+            return false;
+        if (this.running) {
+            this.deferred.add(new Deferred(pos.asLong(), new Pending(task, seed(pos.asLong()))));
+            this.size++;
+            return true;
+        }
+        enqueue(pos.asLong(), new Pending(task, seed(pos.asLong())));
+        return true;
+    }
+
+    /**
+     * Drops every task queued in a chunk, so nothing loads it again or grows in it once it has unloaded.
+     */
+    public void chunkUnloaded(ChunkPos pos) {
+        for (int y = this.level.getMinSectionY(); y <= this.level.getMaxSectionY(); y++) {
+            Long2ObjectLinkedOpenHashMap<Pending> section = this.sections.remove(SectionPos.asLong(pos.x, y, pos.z));
+            if (section != null)
+                this.size -= section.size();
+        }
+    }
+
+    private void enqueue(long key, Pending pending) {
+        Long2ObjectLinkedOpenHashMap<Pending> section = this.sections.computeIfAbsent(SectionPos.blockToSection(key), sectionKey -> new Long2ObjectLinkedOpenHashMap<>());
+        if (!section.containsKey(key)) {
+            section.put(key, pending);
+            this.size++;
+        }
+    }
+
+    /**
+     * Runs {@code task} immediately, seeded the same way as if it had been queued this tick.
+     */
+    public void runNow(BlockPos pos, GrowthTask task) {
+        this.runNowRandom.setSeed(seed(pos.asLong()));
+        task.grow(this.level, pos, this.runNowRandom, this.neighborUpdates);
+        if (!this.running)
+            this.neighborUpdates.flush(this.level);
+    }
+
+    /**
+     * Runs queued tasks until the queue is empty or {@code budgetNanos} has been used. At least one task is run
+     * each call so the queue always makes progress.
+     *
+     * @return how many tasks were run
+     */
+    public int tick(long budgetNanos) {
+        if (this.size == 0)
+            return 0;
+
+        long deadline = System.nanoTime() + budgetNanos;
+        int ran = 0;
+        this.running = true;
+        try {
+            ObjectIterator<Long2ObjectLinkedOpenHashMap<Pending>> sectionIt = this.sections.values().iterator();
+            run:
+            while (sectionIt.hasNext()) {
+                Long2ObjectLinkedOpenHashMap<Pending> section = sectionIt.next();
+                while (!section.isEmpty()) {
+                    if (ran > 0 && System.nanoTime() >= deadline)
+                        break run;
+                    long key = section.firstLongKey();
+                    Pending pending = section.removeFirst();
+                    this.size--;
+                    // Reading a chunk that stopped ticking could load it again, and vanilla wouldn't grow there
+                    if (!this.level.shouldTickBlocksAt(ChunkPos.asLong(SectionPos.blockToSectionCoord(BlockPos.getX(key)), SectionPos.blockToSectionCoord(BlockPos.getZ(key)))))
+                        continue;
+                    this.random.setSeed(pending.seed);
+                    pending.task.grow(this.level, BlockPos.of(key), this.random, this.neighborUpdates);
+                    ran++;
+                }
+                sectionIt.remove();
+            }
+        } finally {
+            this.running = false;
+        }
+
+        this.neighborUpdates.flush(this.level);
+        for (Deferred task : this.deferred) {
+            this.size--;
+            enqueue(task.pos, task.pending);
+        }
+        this.deferred.clear();
+        return ran;
+    }
+
+    private long seed(long pos) {
+        return this.level.getSeed() ^ pos * 0x9E3779B97F4A7C15L ^ this.level.getGameTime();
+    }
+
+    private record Pending(GrowthTask task, long seed) {}
+
+    private record Deferred(long pos, Pending pending) {}
+
+    /**
+     * Positions changed during a batch. Each one has its neighbours updated once when the batch ends, however
+     * many tasks touched it.
+     */
+    public static final class NeighborUpdates {
+        private final LongLinkedOpenHashSet changed = new LongLinkedOpenHashSet();
+
+        private NeighborUpdates() {}
+
+        public void markChanged(BlockPos pos) {
+            this.changed.add(pos.asLong());
+        }
+
+        private void flush(ServerLevel level) {
+            BlockPos.MutableBlockPos pos = new BlockPos.MutableBlockPos();
+            for (LongIterator it = this.changed.iterator(); it.hasNext(); ) {
+                pos.set(it.nextLong());
+                level.updateNeighborsAt(pos, level.getBlockState(pos).getBlock());
+            }
+            this.changed.clear();
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package com.example.examplemod.growth;
+
+import net.minecraft.core.BlockPos;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.util.RandomSource;
+
+/**
+ * One queued growth attempt, run by a {@link GrowthScheduler}.
+ */
+@FunctionalInterface
+public interface GrowthTask {
+    /**
+     * Grows whatever is at {@code pos}, if it is still there.
+     * <p>
+     * {@code random} is seeded from the position and the tick the task was queued on, so the outcome doesn't
+     * depend on how long the task waited. Blocks should be placed with {@code Block.UPDATE_CLIENTS} only and
+     * their positions passed to {@code neighborUpdates}; the scheduler notifies neighbours once per position at
+     * the end of the batch.
+     */
+    void grow(ServerLevel level, BlockPos pos, RandomSource random, GrowthScheduler.NeighborUpdates neighborUpdates);
+}
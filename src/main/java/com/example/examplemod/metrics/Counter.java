@@ -0,0 +1,35 @@
+package com.example.examplemod.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A running total since server start, safe to bump from any thread without allocating.
+ */
+public final class Counter {
+    private final String name;
+    private final LongAdder value = new LongAdder();
+
+    Counter(String name) {
+        this.name = name;
+    }
+
+    public String name() {
+        return this.name;
+    }
+
+    public void increment() {
+        this.value.increment();
+    }
+
+    public void add(long amount) {
+        this.value.add(amount);
+    }
+
+    public long sum() {
+        return this.value.sum();
+    }
+
+    void reset() {
+        this.value.reset();
+    }
+}
@@ -0,0 +1,126 @@
+package com.example.examplemod.metrics;
+
+import com.example.examplemod.ExampleMod;
+import net.minecraftforge.event.TickEvent;
+import net.minecraftforge.event.server.ServerStoppedEvent;
+import net.minecraftforge.eventbus.api.listener.SubscribeEvent;
+import net.minecraftforge.fml.common.Mod;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Counters and timers the mod's End systems report into, read back by {@code /endertime profile}.
+ * <p>
+ * Timers keep a rolling window of {@link #SLOTS} slots of {@link #SLOT_TICKS} server ticks each; the oldest slot
+ * is cleared and reused every time the window moves on. Everything is registered up front, so reporting never
+ * allocates.
+ */
+@Mod.EventBusSubscriber(modid = ExampleMod.MODID)
+public final class Metrics {
+    static final int SLOTS = 10;
+    static final int SLOT_TICKS = 20;
+
+    private static final List<Timer> TIMERS = new ArrayList<>();
+    private static final List<Counter> COUNTERS = new ArrayList<>();
+
+    // The whole server tick; other timers' MSPT share is measured against this one
+    public static final Timer SERVER_TICK = timer("server.tick");
+    public static final Timer WORLDGEN_END_ISLANDS = timer("worldgen.end_islands");
+    public static final Timer GATEWAY_EXIT = timer("gateway.exit");
+    public static final Timer DRAGON_FIGHT_ARENA = timer("dragon_fight.arena");
+    public static final Timer GROWTH = timer("growth");
+    public static final Timer ENTITY_TELEPORT = timer("entity.teleport");
+    public static final Timer END_STATE_SYNC = timer("sync.end_state");
+
+    public static final Counter END_ISLAND_TILES_BUILT = counter("worldgen.end_islands.tiles_built");
+    public static final Counter END_BIOME_EROSION_SAMPLES = counter("worldgen.end_biomes.erosion_samples");
+    public static final Counter GATEWAY_INDEX_HITS = counter("gateway.index.hits");
+    public static final Counter GATEWAY_INDEX_MISSES = counter("gateway.index.misses");
+    public static final Counter GROWTH_TASKS_RUN = counter("growth.tasks_run");
+    public static final Counter TELEPORT_CACHE_HITS = counter("entity.teleport.cache.hits");
+    public static final Counter TELEPORT_CACHE_MISSES = counter("entity.teleport.cache.misses");
+    // Estimated from the average number of vanilla attempts a cache miss ends up making
+    public static final Counter TELEPORT_PROBES_SAVED = counter("entity.teleport.probes_saved");
+    public static final Counter END_STATE_SYNC_BYTES = counter("sync.end_state.bytes_sent");
+
+    private static volatile int slot;
+    private static int ticksInSlot;
+    private static long tickStart;
+    private static volatile long lastServerTickNanos;
+
+    private Metrics() {}
+
+    public static synchronized Timer timer(String name) {
+        Timer timer = new Timer(name);
+        TIMERS.add(timer);
+        return timer;
+    }
+
+    public static synchronized Counter counter(String name) {
+        Counter counter = new Counter(name);
+        COUNTERS.add(counter);
+        return counter;
+    }
+
+    public static synchronized List<Timer> timers() {
+        return Collections.unmodifiableList(new ArrayList<>(TIMERS));
+    }
+
+    public static synchronized List<Counter> counters() {
+        return Collections.unmodifiableList(new ArrayList<>(COUNTERS));
+    }
+
+    /**
+     * How many seconds of history the timers cover.
+     */
+    public static int windowSeconds() {
+        return SLOTS * SLOT_TICKS / 20;
+    }
+
+    /**
+     * How long the last full server tick took, for callers that need single ticks rather than the window.
+     */
+    public static long lastServerTickNanos() {
+        return lastServerTickNanos;
+    }
+
+    static int slot() {
+        return slot;
+    }
+
+    @SubscribeEvent
+    static void onServerTickPre(final TickEvent.ServerTickEvent.Pre event) {
+        tickStart = System.nanoTime();
+    }
+
+    @SubscribeEvent
+    static void onServerTickPost(final TickEvent.ServerTickEvent.Post event) {
+        long nanos = System.nanoTime() - tickStart;
+        SERVER_TICK.record(nanos);
+        lastServerTickNanos = nanos;
+        if (++ticksInSlot >= SLOT_TICKS) {
+            ticksInSlot = 0;
+            advanceSlot();
+        }
+    }
+
+    @SubscribeEvent
+    static synchronized void onServerStopped(final ServerStoppedEvent event) {
+        // Don't carry one integrated server's numbers over into the next world
+        for (int i = 0; i < TIMERS.size(); i++) {
+            for (int j = 0; j < SLOTS; j++)
+                TIMERS.get(i).clear(j);
+        }
+        for (int i = 0; i < COUNTERS.size(); i++)
+            COUNTERS.get(i).reset();
+    }
+
+    private static synchronized void advanceSlot() {
+        int next = (slot + 1) % SLOTS;
+        for (int i = 0; i < TIMERS.size(); i++)
+            TIMERS.get(i).clear(next);
+        slot = next;
+    }
+}
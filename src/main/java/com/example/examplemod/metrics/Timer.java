@@ -0,0 +1,104 @@
+package com.example.examplemod.metrics;
+
+import com.example.examplemod.Config;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A latency histogram over the rolling window kept by {@link Metrics}.
+ * <p>
+ * Buckets are fixed: four per power of two, so any reported percentile is within 25% of the true value.
+ * Recording only touches preallocated atomic arrays and is safe from worldgen threads.
+ */
+public final class Timer {
+    // Four buckets per power of two up to 2^36ns (about 68 seconds); anything slower lands in the last one
+    static final int BUCKETS = 144;
+
+    private final String name;
+    private final AtomicLongArray buckets = new AtomicLongArray(Metrics.SLOTS * BUCKETS);
+    private final AtomicLongArray totals = new AtomicLongArray(Metrics.SLOTS);
+    private final AtomicLongArray maxes = new AtomicLongArray(Metrics.SLOTS);
+
+    Timer(String name) {
+        this.name = name;
+    }
+
+    public String name() {
+        return this.name;
+    }
+
+    /**
+     * Records the time since {@code startNanos}, a value previously read from {@link System#nanoTime()}.
+     */
+    public void stop(long startNanos) {
+        record(System.nanoTime() - startNanos);
+    }
+
+    public void record(long nanos) {
+        int slot = Metrics.slot();
+        this.buckets.incrementAndGet(slot * BUCKETS + bucket(nanos));
+        this.totals.addAndGet(slot, nanos);
+        this.maxes.accumulateAndGet(slot, nanos, Math::max);
+        if (Config.profilerJfrEvents)
+            TimerEvent.emit(this.name, nanos);
+    }
+
+    void clear(int slot) {
+        for (int i = slot * BUCKETS; i < (slot + 1) * BUCKETS; i++)
+            this.buckets.set(i, 0L);
+        this.totals.set(slot, 0L);
+        this.maxes.set(slot, 0L);
+    }
+
+    /**
+     * Sums every slot of the window into one snapshot. This allocates, and is meant for commands, not hot paths.
+     */
+    public Snapshot snapshot() {
+        long[] counts = new long[BUCKETS];
+        long count = 0L;
+        long total = 0L;
+        long max = 0L;
+        for (int slot = 0; slot < Metrics.SLOTS; slot++) {
+            for (int bucket = 0; bucket < BUCKETS; bucket++) {
+                long n = this.buckets.get(slot * BUCKETS + bucket);
+                counts[bucket] += n;
+                count += n;
+            }
+            total += this.totals.get(slot);
+            max = Math.max(max, this.maxes.get(slot));
+        }
+        return new Snapshot(this.name, count, total, percentile(counts, count, 0.50), percentile(counts, count, 0.99), max);
+    }
+
+    private static long percentile(long[] counts, long count, double quantile) {
+        long rank = (long) Math.ceil(count * quantile);
+        long seen = 0L;
+        for (int bucket = 0; bucket < BUCKETS; bucket++) {
+            seen += counts[bucket];
+            if (seen >= rank && seen > 0L)
+                return upperBound(bucket);
+        }
+        return 0L;
+    }
+
+    static int bucket(long nanos) {
+        if (nanos < 4L)
+            return (int) Math.max(nanos, 0L);
+        int exponent = 63 - Long.numberOfLeadingZeros(nanos);
+        int sub = (int) (nanos >>> exponent - 2) & 3;
+        return Math.min((exponent - 1) * 4 + sub, BUCKETS - 1);
+    }
+
+    static long upperBound(int bucket) {
+        if (bucket < 4)
+            return bucket;
+        int exponent = bucket / 4 + 1;
+        long lower = (long) (4 + bucket % 4) << exponent - 2;
+        return lower + (1L << exponent - 2) - 1L;
+    }
+
+    /**
+     * A timer's totals over the rolling window, in nanoseconds.
+     */
+    public record Snapshot(String name, long count, long totalNanos, long p50Nanos, long p99Nanos, long maxNanos) {}
+}
@@ -0,0 +1,35 @@
+package com.example.examplemod.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * JFR event emitted for each {@link Timer} sample while {@code profilerJfrEvents} is on.
+ */
+@Name("examplemod.Timer")
+@Label("EnderTime Timer")
+@Category({"Minecraft", "EnderTime"})
+@Description("Time spent in one call to an EnderTime End system")
+@StackTrace(false)
+final class TimerEvent extends Event {
+    @Label("System")
+    String system;
+
+    @Label("Duration")
+    @Timespan(Timespan.NANOSECONDS)
+    long nanos;
+
+    static void emit(String system, long nanos) {
+        TimerEvent event = new TimerEvent();
+        if (event.isEnabled()) {
+            event.system = system;
+            event.nanos = nanos;
+            event.commit();
+        }
+    }
+}
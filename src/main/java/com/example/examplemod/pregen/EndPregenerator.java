@@ -0,0 +1,290 @@
+package com.example.examplemod.pregen;
+
+import com.example.examplemod.Config;
+import com.example.examplemod.ExampleMod;
+import com.mojang.logging.LogUtils;
+import net.minecraft.commands.CommandSourceStack;
+import net.minecraft.network.chat.Component;
+import net.minecraft.core.SectionPos;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.server.level.ChunkResult;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.level.ChunkPos;
+import net.minecraft.world.level.Level;
+import net.minecraft.world.level.border.WorldBorder;
+import net.minecraft.world.level.chunk.ChunkAccess;
+import net.minecraft.world.level.chunk.status.ChunkStatus;
+import net.minecraftforge.event.TickEvent;
+import net.minecraftforge.event.server.ServerStartedEvent;
+import net.minecraftforge.event.server.ServerStoppingEvent;
+import net.minecraftforge.eventbus.api.listener.SubscribeEvent;
+import net.minecraftforge.fml.common.Mod;
+import org.jetbrains.annotations.Nullable;
+import org.slf4j.Logger;
+
+import java.util.ArrayDeque;
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Pregenerates a square of the End around the origin, one 32x32 chunk region at a time.
+ * <p>
+ * Chunks are requested through the normal chunk system, whose worldgen executor already spreads the work over the
+ * available cores; we keep up to one request per core in flight and stop adding more whenever the server's
+ * average MSPT goes over {@code pregenTargetMspt}. Each request holds a {@code examplemod:pregen} ticket until
+ * it completes, so the chunk isn't unloaded halfway through. Progress is saved in {@link PregenProgress} as the
+ * number of region-ordered slots that generated successfully, so a restart picks up from there. Chunks that fail
+ * are retried a few times and then counted as failed, and the saved progress stops short of the first of them.
+ */
+@Mod.EventBusSubscriber(modid = ExampleMod.MODID)
+public final class EndPregenerator {
+    private static final Logger LOGGER = LogUtils.getLogger();
+
+    private static final int REGION_CHUNKS = 32;
+    private static final int REGION_SLOTS = REGION_CHUNKS * REGION_CHUNKS;
+    private static final long REPORT_INTERVAL_NANOS = 30_000_000_000L;
+    // Ticks a pregen ticket lasts; generous, since it is released as soon as the chunk is done
+    public static final long TICKET_TIMEOUT = 20L * 60L * 5L;
+    private static final int MAX_ATTEMPTS = 3;
+
+    @Nullable
+    private static EndPregenerator running;
+
+    private final ServerLevel level;
+    private final PregenProgress progress;
+    @Nullable
+    private final CommandSourceStack source;
+    private final int radius;
+    private final int minRegion;
+    private final int regionsPerRow;
+    private final long totalSlots;
+    private final long totalChunks;
+    private final ArrayDeque<InFlight> inFlight = new ArrayDeque<>();
+    private final long startNanos = System.nanoTime();
+    private final long chunksAtStart;
+    private long nextSlot;
+    private long generatedThisRun;
+    private long failedThisRun;
+    // The lowest slot whose chunk gave up, which the saved progress must not pass
+    private long firstFailedSlot = Long.MAX_VALUE;
+    private long lastReportNanos = this.startNanos;
+    private boolean throttled;
+
+    private EndPregenerator(ServerLevel level, PregenProgress progress, @Nullable CommandSourceStack source) {
+        this.level = level;
+        this.progress = progress;
+        this.source = source;
+        this.radius = progress.radius();
+        this.minRegion = Math.floorDiv(-this.radius, REGION_CHUNKS);
+        this.regionsPerRow = Math.floorDiv(this.radius, REGION_CHUNKS) - this.minRegion + 1;
+        this.totalSlots = (long) this.regionsPerRow * this.regionsPerRow * REGION_SLOTS;
+        this.totalChunks = (2L * this.radius + 1) * (2L * this.radius + 1);
+        this.nextSlot = progress.completed();
+        this.chunksAtStart = chunksBefore(this.nextSlot);
+    }
+
+    /**
+     * Starts pregenerating every End chunk within {@code radius} chunks of the origin, replacing any saved run. The
+     * radius is cut down to the End's world border.
+     */
+    public static Component start(MinecraftServer server, int radius, CommandSourceStack source) {
+        ServerLevel end = server.getLevel(Level.END);
+        if (end == null)
+            return Component.literal("The End is not loaded");
+        if (running != null)
+            running.releaseTickets();
+        radius = Math.min(radius, borderRadius(end.getWorldBorder()));
+        PregenProgress progress = end.getDataStorage().computeIfAbsent(PregenProgress.TYPE);
+        progress.start(radius);
+        running = new EndPregenerator(end, progress, source);
+        return Component.literal(String.format(Locale.ROOT, "Pregenerating %d End chunks within %d blocks of the origin",
+                running.totalChunks, radius * 16));
+    }
+
+    public static Component stop() {
+        if (running == null)
+            return Component.literal("No End pregeneration is running");
+        running.progress.finish();
+        running.releaseTickets();
+        Component status = running.status();
+        running = null;
+        return Component.literal("Stopped End pregeneration at ").append(status);
+    }
+
+    public static Component status() {
+        return running == null ? Component.literal("No End pregeneration is running") : running.status();
+    }
+
+    @SubscribeEvent
+    static void onServerStarted(final ServerStartedEvent event) {
+        ServerLevel end = event.getServer().getLevel(Level.END);
+        if (end == null)
+            return;
+        PregenProgress progress = end.getDataStorage().computeIfAbsent(PregenProgress.TYPE);
+        if (progress.active()) {
+            running = new EndPregenerator(end, progress, null);
+            LOGGER.info("Resuming End pregeneration: {}", running.status().getString());
+        }
+    }
+
+    @SubscribeEvent
+    static void onServerStopping(final ServerStoppingEvent event) {
+        // Progress is already saved with the End; in-flight chunks are simply requested again next time
+        running = null;
+    }
+
+    @SubscribeEvent
+    static void onServerTick(final TickEvent.ServerTickEvent.Post event) {
+        if (running != null && running.tick())
+            running = null;
+    }
+
+    // Returns true once the run is finished
+    private boolean tick() {
+        for (InFlight chunk : this.inFlight) {
+            if (!chunk.done && chunk.future.isDone())
+                complete(chunk);
+        }
+        // Only the oldest requests can move the saved watermark, so later ones finishing first just wait
+        while (!this.inFlight.isEmpty() && this.inFlight.peekFirst().done)
+            this.inFlight.pollFirst();
+        this.progress.advance(Math.min(this.firstFailedSlot, this.inFlight.isEmpty() ? this.nextSlot : this.inFlight.peekFirst().slot));
+
+        double mspt = this.level.getServer().getAverageTickTimeNanos() / 1.0E6;
+        if (this.throttled)
+            this.throttled = mspt > Config.pregenTargetMspt * 0.9;
+        else
+            this.throttled = mspt > Config.pregenTargetMspt;
+
+        int maxInFlight = Config.pregenMaxInFlight > 0 ? Config.pregenMaxInFlight : Runtime.getRuntime().availableProcessors();
+        while (!this.throttled && this.inFlight.size() < maxInFlight && this.nextSlot < this.totalSlots) {
+            long slot = this.nextSlot++;
+            ChunkPos pos = chunkAt(slot);
+            if (pos != null) {
+                InFlight chunk = new InFlight(slot, pos);
+                request(chunk);
+                this.inFlight.addLast(chunk);
+            }
+        }
+
+        long now = System.nanoTime();
+        if (this.nextSlot >= this.totalSlots && this.inFlight.isEmpty()) {
+            this.progress.finish();
+            report(Component.literal("Finished End pregeneration: ").append(status()));
+            return true;
+        }
+        if (now - this.lastReportNanos >= REPORT_INTERVAL_NANOS) {
+            this.lastReportNanos = now;
+            report(status());
+        }
+        return false;
+    }
+
+    private void request(InFlight chunk) {
+        chunk.attempts++;
+        this.level.getChunkSource().addTicketWithRadius(ExampleMod.PREGEN_TICKET.get(), chunk.pos, 0);
+        chunk.future = this.level.getChunkSource().getChunkFuture(chunk.pos.x, chunk.pos.z, ChunkStatus.FULL, true);
+    }
+
+    private void complete(InFlight chunk) {
+        this.level.getChunkSource().removeTicketWithRadius(ExampleMod.PREGEN_TICKET.get(), chunk.pos, 0);
+        ChunkResult<ChunkAccess> result = chunk.future.isCompletedExceptionally() ? null : chunk.future.join();
+        if (result != null && result.isSuccess()) {
+            chunk.done = true;
+            this.generatedThisRun++;
+        } else if (chunk.attempts < MAX_ATTEMPTS) {
+            request(chunk);
+        } else {
+            chunk.done = true;
+            this.failedThisRun++;
+            this.firstFailedSlot = Math.min(this.firstFailedSlot, chunk.slot);
+            LOGGER.warn("Giving up on End chunk {} after {} attempts: {}", chunk.pos, chunk.attempts,
+                    result == null ? "exception" : result.getError());
+        }
+    }
+
+    private void releaseTickets() {
+        for (InFlight chunk : this.inFlight) {
+            if (!chunk.done)
+                this.level.getChunkSource().removeTicketWithRadius(ExampleMod.PREGEN_TICKET.get(), chunk.pos, 0);
+        }
+        this.inFlight.clear();
+    }
+
+    private Component status() {
+        long done = this.chunksAtStart + this.generatedThisRun;
+        double seconds = (System.nanoTime() - this.startNanos) / 1.0E9;
+        double chunksPerSecond = seconds > 0.0 ? this.generatedThisRun / seconds : 0.0;
+        String eta = chunksPerSecond > 0.0 ? formatDuration((long) ((this.totalChunks - done) / chunksPerSecond)) : "unknown";
+        return Component.literal(String.format(Locale.ROOT, "%d/%d chunks (%.1f%%), %.1f chunks/s, ETA %s%s%s",
+                done, this.totalChunks, 100.0 * done / this.totalChunks, chunksPerSecond, eta,
+                this.failedThisRun > 0L ? ", " + this.failedThisRun + " failed" : "",
+                this.throttled ? ", throttled by MSPT" : ""));
+    }
+
+    private void report(Component message) {
+        LOGGER.info(message.getString());
+        if (this.source != null)
+            this.source.sendSuccess(() -> message, true);
+    }
+
+    // The chunk for a slot in region order, or null where the region sticks out past the radius. A run out to the
+    // world border has over 2^31 regions, so region indices stay longs.
+    @Nullable
+    private ChunkPos chunkAt(long slot) {
+        long region = slot / REGION_SLOTS;
+        int local = (int) (slot % REGION_SLOTS);
+        int x = (this.minRegion + (int) (region % this.regionsPerRow)) * REGION_CHUNKS + local % REGION_CHUNKS;
+        int z = (this.minRegion + (int) (region / this.regionsPerRow)) * REGION_CHUNKS + local / REGION_CHUNKS;
+        return Math.abs(x) <= this.radius && Math.abs(z) <= this.radius ? new ChunkPos(x, z) : null;
+    }
+
+    // How many real chunks come before a slot, for progress after a resume. Whole region rows are counted by
+    // their height, then the regions and slots of the row the slot is in.
+    private long chunksBefore(long slot) {
+        long region = slot / REGION_SLOTS;
+        int row = (int) (region / this.regionsPerRow);
+        int column = (int) (region % this.regionsPerRow);
+        long chunks = 0L;
+        for (int i = 0; i < row; i++)
+            chunks += overlap(i) * (2L * this.radius + 1);
+        for (int i = 0; i < column; i++)
+            chunks += (long) overlap(i) * overlap(row);
+
+        int local = (int) (slot % REGION_SLOTS);
+        for (int i = 0; i < local; i++) {
+            if (chunkAt(region * REGION_SLOTS + i) != null)
+                chunks++;
+        }
+        return chunks;
+    }
+
+    // How many chunks of a region row or column fall inside the radius
+    private int overlap(int regionIndex) {
+        int min = (this.minRegion + regionIndex) * REGION_CHUNKS;
+        return Math.max(0, Math.min(min + REGION_CHUNKS - 1, this.radius) - Math.max(min, -this.radius) + 1);
+    }
+
+    // The largest radius, in chunks, whose whole square is inside the border
+    private static int borderRadius(WorldBorder border) {
+        double blocks = Math.min(Math.min(border.getMaxX(), -border.getMinX()), Math.min(border.getMaxZ(), -border.getMinZ()));
+        return Math.max(0, SectionPos.blockToSectionCoord(blocks) - 1);
+    }
+
+    private static String formatDuration(long seconds) {
+        return String.format(Locale.ROOT, "%d:%02d:%02d", seconds / 3600, seconds / 60 % 60, seconds % 60);
+    }
+
+    private static final class InFlight {
+        final long slot;
+        final ChunkPos pos;
+        CompletableFuture<ChunkResult<ChunkAccess>> future;
+        int attempts;
+        boolean done;
+
+        InFlight(long slot, ChunkPos pos) {
+            this.slot = slot;
+            this.pos = pos;
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.example.examplemod.pregen;
+
+import com.mojang.serialization.Codec;
+import com.mojang.serialization.codecs.RecordCodecBuilder;
+import net.minecraft.world.level.saveddata.SavedData;
+import net.minecraft.world.level.saveddata.SavedDataType;
+
+/**
+ * Where an End pregeneration run got to, saved with the End so a restart resumes it.
+ */
+public class PregenProgress extends SavedData {
+    public static final Codec<PregenProgress> CODEC = RecordCodecBuilder.create(instance -> instance.group(
+            Codec.INT.fieldOf("radius").forGetter(progress -> progress.radius),
+            Codec.LONG.fieldOf("completed").forGetter(progress -> progress.completed),
+            Codec.BOOL.fieldOf("active").forGetter(progress -> progress.active)
+    ).apply(instance, PregenProgress::new));
+    public static final SavedDataType<PregenProgress> TYPE = new SavedDataType<>(
+            "examplemod_pregen", () -> new PregenProgress(), CODEC, null
+    );
+
+    // Radius of the run, in chunks
+    private int radius;
+    // Every slot of the run's order below this has been generated
+    private long completed;
+    private boolean active;
+
+    public PregenProgress() {
+        this(0, 0L, false);
+    }
+
+    private PregenProgress(int radius, long completed, boolean active) {
+        this.radius = radius;
+        this.completed = completed;
+        this.active = active;
+    }
+
+    public int radius() {
+        return this.radius;
+    }
+
+    public long completed() {
+        return this.completed;
+    }
+
+    public boolean active() {
+        return this.active;
+    }
+
+    public void start(int radius) {
+        this.radius = radius;
+        this.completed = 0L;
+        this.active = true;
+        setDirty();
+    }
+
+    public void advance(long completed) {
+        if (completed != this.completed) {
+            this.completed = completed;
+            setDirty();
+        }
+    }
+
+    public void finish() {
+        this.active = false;
+        setDirty();
+    }
+}
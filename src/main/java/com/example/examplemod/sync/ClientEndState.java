@@ -0,0 +1,41 @@
+package com.example.examplemod.sync;
+
+import com.example.examplemod.ExampleMod;
+import com.mojang.logging.LogUtils;
+import io.netty.buffer.Unpooled;
+import net.minecraft.network.FriendlyByteBuf;
+import net.minecraftforge.api.distmarker.Dist;
+import net.minecraftforge.client.event.ClientPlayerNetworkEvent;
+import net.minecraftforge.eventbus.api.listener.SubscribeEvent;
+import net.minecraftforge.fml.common.Mod;
+import org.slf4j.Logger;
+
+/**
+ * The client's copy of the End state, kept up to date by {@link EndStateDelta}s. Only read it on the client
+ * thread.
+ */
+public final class ClientEndState {
+    private static final Logger LOGGER = LogUtils.getLogger();
+
+    private static final EndStateTable TABLE = new EndStateTable();
+
+    private ClientEndState() {}
+
+    public static EndStateTable table() {
+        return TABLE;
+    }
+
+    static void apply(byte[] payload) {
+        // The server sends every version in order, so this only happens if it lost track of us
+        if (!TABLE.apply(new FriendlyByteBuf(Unpooled.wrappedBuffer(payload))))
+            LOGGER.warn("Dropped an End state delta that doesn't follow version {}", TABLE.version());
+    }
+
+    @Mod.EventBusSubscriber(modid = ExampleMod.MODID, value = Dist.CLIENT)
+    public static class ClientEvents {
+        @SubscribeEvent
+        public static void onLoggingOut(ClientPlayerNetworkEvent.LoggingOut event) {
+            TABLE.clear();
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.example.examplemod.sync;
+
+import net.minecraft.network.FriendlyByteBuf;
+import net.minecraftforge.event.network.CustomPayloadEvent;
+
+/**
+ * One tick's worth of {@link EndStateTable} changes for one player, already encoded so players that are at the
+ * same version share the same bytes.
+ */
+public record EndStateDelta(byte[] payload) {
+    public static void encode(EndStateDelta message, FriendlyByteBuf buf) {
+        buf.writeBytes(message.payload);
+    }
+
+    public static EndStateDelta decode(FriendlyByteBuf buf) {
+        byte[] payload = new byte[buf.readableBytes()];
+        buf.readBytes(payload);
+        return new EndStateDelta(payload);
+    }
+
+    public static void handle(EndStateDelta message, CustomPayloadEvent.Context context) {
+        ClientEndState.apply(message.payload);
+    }
+}
@@ -0,0 +1,43 @@
+package com.example.examplemod.sync;
+
+/**
+ * The kinds of End state kept in an {@link EndStateTable}, and the fields each one carries.
+ * <p>
+ * Every field is a long and defaults to 0, so a field only goes over the wire once it holds something else. New
+ * kinds and fields go on the end; reordering them changes the wire format and needs a protocol version bump in
+ * {@link EndStateNetwork}.
+ */
+public enum EndStateKind {
+    // One entry, keyed 0
+    DRAGON_FIGHT(5),
+    // Keyed by the gateway's BlockPos.asLong()
+    GATEWAY(3);
+
+    public static final int FIGHT_DRAGON_KILLED = 0;
+    public static final int FIGHT_PREVIOUSLY_KILLED = 1;
+    public static final int FIGHT_CRYSTALS_ALIVE = 2;
+    // The respawn stage's ordinal plus one, or 0 when no respawn is running
+    public static final int FIGHT_RESPAWN_STAGE = 3;
+    public static final int FIGHT_GATEWAYS_LEFT = 4;
+
+    // Game times rather than the block entity's counters, so they don't change every tick
+    public static final int GATEWAY_SPAWNED_AT = 0;
+    public static final int GATEWAY_COOLDOWN_UNTIL = 1;
+    public static final int GATEWAY_HAS_EXIT = 2;
+
+    private static final EndStateKind[] VALUES = values();
+
+    private final int fields;
+
+    EndStateKind(int fields) {
+        this.fields = fields;
+    }
+
+    public int fields() {
+        return this.fields;
+    }
+
+    static EndStateKind byId(int id) {
+        return VALUES[id];
+    }
+}
@@ -0,0 +1,41 @@
+package com.example.examplemod.sync;
+
+import com.example.examplemod.ExampleMod;
+import net.minecraft.resources.ResourceLocation;
+import net.minecraft.server.level.ServerPlayer;
+import net.minecraftforge.network.ChannelBuilder;
+import net.minecraftforge.network.NetworkDirection;
+import net.minecraftforge.network.PacketDistributor;
+import net.minecraftforge.network.SimpleChannel;
+
+/**
+ * The {@code examplemod:end_state} channel, which carries {@link EndStateDelta}s to clients.
+ */
+public final class EndStateNetwork {
+    // Bump whenever the wire format of EndStateTable or the fields of EndStateKind change
+    private static final int PROTOCOL_VERSION = 1;
+
+    public static final SimpleChannel CHANNEL = ChannelBuilder.named(ResourceLocation.fromNamespaceAndPath(ExampleMod.MODID, "end_state"))
+            .networkProtocolVersion(PROTOCOL_VERSION)
+            // Vanilla clients and clients without the mod can still join, they just don't get the End state
+            .optional()
+            .simpleChannel();
+
+    private EndStateNetwork() {}
+
+    public static void register() {
+        CHANNEL.messageBuilder(EndStateDelta.class, NetworkDirection.PLAY_TO_CLIENT)
+                .encoder(EndStateDelta::encode)
+                .decoder(EndStateDelta::decode)
+                .consumerMainThread(EndStateDelta::handle)
+                .add();
+    }
+
+    public static boolean canSend(ServerPlayer player) {
+        return CHANNEL.isRemotePresent(player.connection.getConnection());
+    }
+
+    public static void send(ServerPlayer player, EndStateDelta delta) {
+        CHANNEL.send(delta, PacketDistributor.PLAYER.with(player));
+    }
+}
@@ -0,0 +1,179 @@
+package com.example.examplemod.sync;
+
+import com.example.examplemod.ExampleMod;
+import com.example.examplemod.metrics.Metrics;
+import io.netty.buffer.Unpooled;
+import it.unimi.dsi.fastutil.ints.Int2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongIterator;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+import it.unimi.dsi.fastutil.longs.LongSet;
+import it.unimi.dsi.fastutil.objects.Object2IntOpenHashMap;
+import it.unimi.dsi.fastutil.objects.ObjectOpenHashSet;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.SectionPos;
+import net.minecraft.network.FriendlyByteBuf;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.server.level.ServerPlayer;
+import net.minecraft.world.level.ChunkPos;
+import net.minecraft.world.level.Level;
+import net.minecraft.world.level.block.Blocks;
+import net.minecraft.world.level.block.entity.BlockEntity;
+import net.minecraft.world.level.block.entity.TheEndGatewayBlockEntity;
+import net.minecraft.world.level.chunk.LevelChunk;
+import net.minecraft.world.level.dimension.end.EndDragonFight;
+import net.minecraftforge.event.TickEvent;
+import net.minecraftforge.event.level.BlockEvent;
+import net.minecraftforge.event.level.ChunkEvent;
+import net.minecraftforge.event.level.LevelEvent;
+import net.minecraftforge.eventbus.api.listener.SubscribeEvent;
+import net.minecraftforge.fml.common.Mod;
+
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Keeps the End's {@link EndStateTable} up to date on the server and sends every player in the End one
+ * {@link EndStateDelta} per tick with whatever changed since the version they were last sent.
+ * <p>
+ * Each player is sent a delta from their own version, but most players are at the same one, so each distinct
+ * delta is only encoded once per tick. Gateway and dragon fight values are read straight from the block entities
+ * and the fight; the table works out which fields actually changed.
+ */
+@Mod.EventBusSubscriber(modid = ExampleMod.MODID)
+public final class EndStateSync {
+    private static final EndStateTable TABLE = new EndStateTable();
+    // Gateways in loaded End chunks
+    private static final LongSet GATEWAYS = new LongOpenHashSet();
+    // The version each player in the End was last sent; players missing here get a full snapshot
+    private static final Object2IntOpenHashMap<UUID> SENT = new Object2IntOpenHashMap<>();
+    private static final Int2ObjectOpenHashMap<EndStateDelta> DELTAS = new Int2ObjectOpenHashMap<>();
+    private static final Set<UUID> PRESENT = new ObjectOpenHashSet<>();
+
+    private EndStateSync() {}
+
+    /**
+     * The server's End state. Only change it on the server thread, during the End's tick.
+     */
+    public static EndStateTable table() {
+        return TABLE;
+    }
+
+    @SubscribeEvent
+    static void onChunkLoad(final ChunkEvent.Load event) {
+        if (event.getLevel() instanceof ServerLevel level && level.dimension() == Level.END && event.getChunk() instanceof LevelChunk chunk) {
+            for (BlockEntity blockEntity : chunk.getBlockEntities().values()) {
+                if (blockEntity instanceof TheEndGatewayBlockEntity)
+                    GATEWAYS.add(blockEntity.getBlockPos().asLong());
+            }
+        }
+    }
+
+    @SubscribeEvent
+    static void onChunkUnload(final ChunkEvent.Unload event) {
+        if (!(event.getLevel() instanceof ServerLevel level) || level.dimension() != Level.END)
+            return;
+        ChunkPos pos = event.getChunk().getPos();
+        for (LongIterator iterator = GATEWAYS.iterator(); iterator.hasNext(); ) {
+            long key = iterator.nextLong();
+            if (SectionPos.blockToSectionCoord(BlockPos.getX(key)) == pos.x && SectionPos.blockToSectionCoord(BlockPos.getZ(key)) == pos.z) {
+                iterator.remove();
+                TABLE.remove(EndStateKind.GATEWAY, key);
+            }
+        }
+    }
+
+    @SubscribeEvent
+    static void onBlockChanged(final BlockEvent.NeighborNotifyEvent event) {
+        // New gateways are placed into loaded chunks after the dragon dies; broken ones are noticed in refresh
+        if (event.getLevel() instanceof ServerLevel level && level.dimension() == Level.END && event.getState().is(Blocks.END_GATEWAY))
+            GATEWAYS.add(event.getPos().asLong());
+    }
+
+    @SubscribeEvent
+    static void onLevelTick(final TickEvent.LevelTickEvent.Post event) {
+        if (!(event.level() instanceof ServerLevel level) || level.dimension() != Level.END)
+            return;
+        long start = System.nanoTime();
+        try {
+            refresh(level);
+            TABLE.commit();
+            send(level);
+        } finally {
+            Metrics.END_STATE_SYNC.stop(start);
+        }
+    }
+
+    @SubscribeEvent
+    static void onLevelUnload(final LevelEvent.Unload event) {
+        if (event.getLevel() instanceof ServerLevel level && level.dimension() == Level.END) {
+            TABLE.clear();
+            GATEWAYS.clear();
+            SENT.clear();
+        }
+    }
+
+    private static void refresh(ServerLevel level) {
+        EndDragonFight fight = level.getDragonFight();
+        if (fight != null) {
+            TABLE.set(EndStateKind.DRAGON_FIGHT, 0L, EndStateKind.FIGHT_DRAGON_KILLED, fight.dragonKilled ? 1L : 0L);
+            TABLE.set(EndStateKind.DRAGON_FIGHT, 0L, EndStateKind.FIGHT_PREVIOUSLY_KILLED, fight.hasPreviouslyKilledDragon() ? 1L : 0L);
+            TABLE.set(EndStateKind.DRAGON_FIGHT, 0L, EndStateKind.FIGHT_CRYSTALS_ALIVE, fight.getCrystalsAlive());
+            TABLE.set(EndStateKind.DRAGON_FIGHT, 0L, EndStateKind.FIGHT_RESPAWN_STAGE, fight.respawnStage == null ? 0L : fight.respawnStage.ordinal() + 1L);
+            TABLE.set(EndStateKind.DRAGON_FIGHT, 0L, EndStateKind.FIGHT_GATEWAYS_LEFT, fight.gateways.size());
+        }
+
+        long gameTime = level.getGameTime();
+        for (LongIterator iterator = GATEWAYS.iterator(); iterator.hasNext(); ) {
+            long key = iterator.nextLong();
+            BlockPos pos = BlockPos.of(key);
+            // A gateway's counters only move while its chunk ticks, so elsewhere the game times below would drift
+            if (!level.shouldTickBlocksAt(ChunkPos.asLong(pos)))
+                continue;
+            if (!(level.getBlockEntity(pos) instanceof TheEndGatewayBlockEntity gateway)) {
+                iterator.remove();
+                TABLE.remove(EndStateKind.GATEWAY, key);
+                continue;
+            }
+            TABLE.set(EndStateKind.GATEWAY, key, EndStateKind.GATEWAY_SPAWNED_AT, gameTime - gateway.age);
+            TABLE.set(EndStateKind.GATEWAY, key, EndStateKind.GATEWAY_COOLDOWN_UNTIL, gateway.teleportCooldown > 0 ? gameTime + gateway.teleportCooldown : 0L);
+            TABLE.set(EndStateKind.GATEWAY, key, EndStateKind.GATEWAY_HAS_EXIT, gateway.exitPortal != null ? 1L : 0L);
+        }
+    }
+
+    private static void send(ServerLevel level) {
+        int version = TABLE.version();
+        PRESENT.clear();
+        for (ServerPlayer player : level.players()) {
+            if (!EndStateNetwork.canSend(player))
+                continue;
+            PRESENT.add(player.getUUID());
+            int since = SENT.getOrDefault(player.getUUID(), 0);
+            if (since == version)
+                continue;
+            EndStateDelta delta = DELTAS.computeIfAbsent(since, EndStateSync::encode);
+            EndStateNetwork.send(player, delta);
+            Metrics.END_STATE_SYNC_BYTES.add(delta.payload().length);
+            SENT.put(player.getUUID(), version);
+        }
+        DELTAS.clear();
+
+        // Players who left the End get a fresh snapshot if they come back
+        SENT.keySet().removeIf(uuid -> !PRESENT.contains(uuid));
+        int oldest = version;
+        for (int sent : SENT.values())
+            oldest = Math.min(oldest, sent);
+        TABLE.prune(oldest);
+    }
+
+    private static EndStateDelta encode(int since) {
+        FriendlyByteBuf buf = new FriendlyByteBuf(Unpooled.buffer());
+        try {
+            TABLE.writeDelta(buf, since);
+            byte[] payload = new byte[buf.readableBytes()];
+            buf.readBytes(payload);
+            return new EndStateDelta(payload);
+        } finally {
+            buf.release();
+        }
+    }
+}
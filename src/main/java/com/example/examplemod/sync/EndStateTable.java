@@ -0,0 +1,266 @@
+package com.example.examplemod.sync;
+
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongSet;
+import net.minecraft.network.FriendlyByteBuf;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Versioned End state, as a table of entries with a few long fields each, that can be written as a delta from
+ * any earlier version.
+ * <p>
+ * The server changes fields with {@link #set} and {@link #remove} during a tick and then {@link #commit}s them as
+ * one new version. Every field remembers the version it last changed in, so the delta for a client that has
+ * version {@code since} holds only the fields changed after it. Entries get small ids the first time they are
+ * sent, so later deltas don't repeat their keys. Removed entries stay behind as tombstones until every client is
+ * past them, see {@link #prune}.
+ * <p>
+ * Clients keep a table of their own that deltas are {@link #apply}d to. The wire format is:
+ * <pre>
+ * varint since, varint version, varint entry count, then per entry:
+ *   varint (id &lt;&lt; 2 | 1 if new | 2 if removed)
+ *   if new:         varint kind, long key
+ *   if not removed: varint field mask, then a zigzag varlong per field in the mask
+ * </pre>
+ * A delta from version 0 is a full snapshot and replaces whatever the client had.
+ */
+public class EndStateTable {
+    private static final int NEW = 1;
+    private static final int REMOVED = 2;
+
+    // Indexed by id, with nulls for free ids
+    private final List<Entry> entries = new ArrayList<>();
+    private final IntArrayList freeIds = new IntArrayList();
+    private final List<Long2ObjectOpenHashMap<Entry>> byKey = new ArrayList<>();
+    private int version;
+    private boolean dirty;
+
+    public EndStateTable() {
+        for (int i = 0; i < EndStateKind.values().length; i++)
+            this.byKey.add(new Long2ObjectOpenHashMap<>());
+    }
+
+    public int version() {
+        return this.version;
+    }
+
+    public long get(EndStateKind kind, long key, int field) {
+        Entry entry = this.byKey.get(kind.ordinal()).get(key);
+        return entry == null ? 0L : entry.values[field];
+    }
+
+    public boolean contains(EndStateKind kind, long key) {
+        return this.byKey.get(kind.ordinal()).containsKey(key);
+    }
+
+    /**
+     * The keys of every live entry of {@code kind}. Copy it before removing entries while iterating.
+     */
+    public LongSet keys(EndStateKind kind) {
+        return this.byKey.get(kind.ordinal()).keySet();
+    }
+
+    /**
+     * Sets a field for the next version, adding the entry if it is new. Setting a field to the value it already
+     * has changes nothing.
+     */
+    public void set(EndStateKind kind, long key, int field, long value) {
+        Entry entry = this.byKey.get(kind.ordinal()).get(key);
+        if (entry == null)
+            entry = add(kind, key);
+        if (entry.values[field] != value) {
+            entry.values[field] = value;
+            entry.fieldVersions[field] = this.version + 1;
+            entry.changedVersion = this.version + 1;
+            this.dirty = true;
+        }
+    }
+
+    public void remove(EndStateKind kind, long key) {
+        Entry entry = this.byKey.get(kind.ordinal()).remove(key);
+        if (entry != null) {
+            entry.removedVersion = this.version + 1;
+            entry.changedVersion = this.version + 1;
+            this.dirty = true;
+        }
+    }
+
+    /**
+     * Makes everything set or removed since the last commit the next version.
+     *
+     * @return whether there was anything to commit
+     */
+    public boolean commit() {
+        if (!this.dirty)
+            return false;
+        this.version++;
+        this.dirty = false;
+        return true;
+    }
+
+    /**
+     * Drops the tombstones of entries removed at or before {@code oldestVersion}, the oldest version any client
+     * still has, and frees their ids.
+     */
+    public void prune(int oldestVersion) {
+        for (int id = 0; id < this.entries.size(); id++) {
+            Entry entry = this.entries.get(id);
+            if (entry != null && entry.removedVersion != 0 && entry.removedVersion <= oldestVersion) {
+                this.entries.set(id, null);
+                this.freeIds.add(id);
+            }
+        }
+    }
+
+    /**
+     * Writes everything that changed after version {@code since} up to the current version, or a full snapshot
+     * when {@code since} is 0.
+     */
+    public void writeDelta(FriendlyByteBuf buf, int since) {
+        buf.writeVarInt(since);
+        buf.writeVarInt(this.version);
+
+        int count = 0;
+        for (Entry entry : this.entries) {
+            if (isInDelta(entry, since))
+                count++;
+        }
+        buf.writeVarInt(count);
+
+        for (Entry entry : this.entries) {
+            if (!isInDelta(entry, since))
+                continue;
+            boolean isNew = entry.createdVersion > since;
+            boolean removed = entry.removedVersion != 0;
+            buf.writeVarInt(entry.id << 2 | (isNew ? NEW : 0) | (removed ? REMOVED : 0));
+            if (isNew) {
+                buf.writeVarInt(entry.kind.ordinal());
+                buf.writeLong(entry.key);
+            }
+            if (removed)
+                continue;
+
+            // A client only has defaults for a new entry, so it needs every field that isn't one
+            int mask = 0;
+            for (int field = 0; field < entry.values.length; field++) {
+                if (isNew ? entry.values[field] != 0L : entry.fieldVersions[field] > since)
+                    mask |= 1 << field;
+            }
+            buf.writeVarInt(mask);
+            for (int field = 0; field < entry.values.length; field++) {
+                if ((mask & 1 << field) != 0)
+                    buf.writeVarLong(zigzag(entry.values[field]));
+            }
+        }
+    }
+
+    /**
+     * Applies a delta written by {@link #writeDelta}.
+     *
+     * @return false, leaving the table as it was, when the delta starts from a version this table doesn't have
+     */
+    public boolean apply(FriendlyByteBuf buf) {
+        int since = buf.readVarInt();
+        int version = buf.readVarInt();
+        if (since == 0)
+            clear();
+        else if (since != this.version)
+            return false;
+
+        int count = buf.readVarInt();
+        for (int i = 0; i < count; i++) {
+            int header = buf.readVarInt();
+            int id = header >>> 2;
+            Entry entry;
+            if ((header & NEW) != 0) {
+                EndStateKind kind = EndStateKind.byId(buf.readVarInt());
+                entry = new Entry(id, kind, buf.readLong(), version);
+                while (this.entries.size() <= id)
+                    this.entries.add(null);
+                this.entries.set(id, entry);
+                this.byKey.get(kind.ordinal()).put(entry.key, entry);
+            } else {
+                entry = id < this.entries.size() ? this.entries.get(id) : null;
+            }
+
+            if ((header & REMOVED) != 0) {
+                if (entry != null) {
+                    this.entries.set(id, null);
+                    // The same key may already have come back as a newer entry
+                    this.byKey.get(entry.kind.ordinal()).remove(entry.key, entry);
+                }
+                continue;
+            }
+            int mask = buf.readVarInt();
+            for (int field = 0; mask >>> field != 0; field++) {
+                if ((mask & 1 << field) == 0)
+                    continue;
+                long value = unzigzag(buf.readVarLong());
+                if (entry != null && field < entry.values.length)
+                    entry.values[field] = value;
+            }
+        }
+        this.version = version;
+        return true;
+    }
+
+    public void clear() {
+        this.entries.clear();
+        this.freeIds.clear();
+        this.byKey.forEach(Long2ObjectOpenHashMap::clear);
+        this.version = 0;
+        this.dirty = false;
+    }
+
+    private Entry add(EndStateKind kind, long key) {
+        int id = this.freeIds.isEmpty() ? this.entries.size() : this.freeIds.popInt();
+        Entry entry = new Entry(id, kind, key, this.version + 1);
+        if (id == this.entries.size())
+            this.entries.add(entry);
+        else
+            this.entries.set(id, entry);
+        this.byKey.get(kind.ordinal()).put(key, entry);
+        this.dirty = true;
+        return entry;
+    }
+
+    // A client at `since` never saw entries that were added and removed after it, so those are left out
+    private static boolean isInDelta(@Nullable Entry entry, int since) {
+        return entry != null && entry.changedVersion > since && !(entry.removedVersion != 0 && entry.createdVersion > since);
+    }
+
+    // Small negative values would otherwise take all ten bytes of a varlong
+    private static long zigzag(long value) {
+        return value << 1 ^ value >> 63;
+    }
+
+    private static long unzigzag(long value) {
+        return value >>> 1 ^ -(value & 1L);
+    }
+
+    private static final class Entry {
+        final int id;
+        final EndStateKind kind;
+        final long key;
+        final long[] values;
+        // Only kept up to date on the server
+        final int[] fieldVersions;
+        final int createdVersion;
+        int changedVersion;
+        int removedVersion;
+
+        Entry(int id, EndStateKind kind, long key, int createdVersion) {
+            this.id = id;
+            this.kind = kind;
+            this.key = key;
+            this.values = new long[kind.fields()];
+            this.fieldVersions = new int[kind.fields()];
+            this.createdVersion = createdVersion;
+            this.changedVersion = createdVersion;
+        }
+    }
+}
@@ -0,0 +1,191 @@
+package com.example.examplemod.teleport;
+
+import com.example.examplemod.ExampleMod;
+import com.example.examplemod.metrics.Metrics;
+import net.minecraft.core.BlockPos;
+import net.minecraft.resources.ResourceKey;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.sounds.SoundEvents;
+import net.minecraft.util.Mth;
+import net.minecraft.util.RandomSource;
+import net.minecraft.world.entity.monster.EnderMan;
+import net.minecraft.world.entity.projectile.AbstractArrow;
+import net.minecraft.world.entity.projectile.ThrownTrident;
+import net.minecraft.world.level.Level;
+import net.minecraft.world.level.gameevent.GameEvent;
+import net.minecraft.world.phys.EntityHitResult;
+import net.minecraft.world.phys.Vec3;
+import net.minecraftforge.event.ForgeEventFactory;
+import net.minecraftforge.event.entity.EntityTeleportEvent;
+import net.minecraftforge.event.entity.ProjectileImpactEvent;
+import net.minecraftforge.event.level.BlockEvent;
+import net.minecraftforge.event.level.ChunkEvent;
+import net.minecraftforge.event.level.LevelEvent;
+import net.minecraftforge.eventbus.api.listener.SubscribeEvent;
+import net.minecraftforge.fml.common.Mod;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Enderman random teleports served from a {@link TeleportDestinationCache}.
+ * <p>
+ * The expensive case in a farm is an enderman hit by an arrow, which tries up to 64 random targets, probing
+ * blocks and collision for each. We take over that case when the arrow hits: one cached safe spot near a random
+ * target is tried first, and only if that misses does the enderman fall back to vanilla's own attempts. (Endermites
+ * don't random-teleport in vanilla, so there is nothing to take over for them.)
+ * <p>
+ * The hit is caught at {@link ProjectileImpactEvent}, because an enderman's projectile damage never reaches
+ * {@code LivingEntity.hurtServer} and so never fires the living attack event. Only arrows are taken over: they do
+ * nothing else to an enderman that teleports away, while other projectiles still have their own effects to run.
+ */
+@Mod.EventBusSubscriber(modid = ExampleMod.MODID)
+public final class SafeTeleports {
+    // Vanilla's attempt count for an enderman hit by a projectile
+    private static final int VANILLA_ATTEMPTS = 64;
+    // How far vanilla's random teleport reaches from the enderman, in each direction
+    private static final int TELEPORT_RANGE = 32;
+    // An enderman is 2.9 blocks tall
+    private static final int ENDERMAN_BODY_HEIGHT = 3;
+
+    private static final Map<ResourceKey<Level>, TeleportDestinationCache> CACHES = new HashMap<>();
+
+    // Vanilla attempts made by fallbacks, and how many fallbacks there were, to estimate what a cache hit saves
+    private static long fallbackAttempts;
+    private static long fallbacks;
+
+    private SafeTeleports() {}
+
+    public static TeleportDestinationCache cache(ServerLevel level) {
+        return CACHES.computeIfAbsent(level.dimension(), key -> new TeleportDestinationCache(level, ENDERMAN_BODY_HEIGHT));
+    }
+
+    @SubscribeEvent
+    static boolean onProjectileImpact(final ProjectileImpactEvent event) {
+        // Tridents count as dealing damage even when the enderman dodges, so vanilla keeps handling them
+        if (!(event.getProjectile() instanceof AbstractArrow arrow) || arrow instanceof ThrownTrident
+                || !(event.getRayTraceResult() instanceof EntityHitResult hit) || !(hit.getEntity() instanceof EnderMan enderMan)
+                || !(enderMan.level() instanceof ServerLevel level))
+            return false;
+        // Vanilla's hurtServer checks this before teleporting; an invulnerable enderman stays put and the arrow bounces
+        if (enderMan.isInvulnerableTo(level, level.damageSources().arrow(arrow, arrow.getOwner())))
+            return false;
+        // Once the enderman has teleported, vanilla's arrow carries on as if it never hit, which is what cancelling
+        // the impact does. If every attempt failed vanilla gets the hit, so it bounces the arrow off as it would.
+        return teleport(enderMan, VANILLA_ATTEMPTS);
+    }
+
+    @SubscribeEvent
+    static void onBlockChanged(final BlockEvent.NeighborNotifyEvent event) {
+        if (event.getLevel() instanceof ServerLevel level) {
+            TeleportDestinationCache cache = CACHES.get(level.dimension());
+            if (cache != null)
+                cache.blockChanged(event.getPos());
+        }
+    }
+
+    @SubscribeEvent
+    static void onChunkUnload(final ChunkEvent.Unload event) {
+        if (event.getLevel() instanceof ServerLevel level) {
+            TeleportDestinationCache cache = CACHES.get(level.dimension());
+            if (cache != null)
+                cache.chunkUnloaded(event.getChunk().getPos());
+        }
+    }
+
+    @SubscribeEvent
+    static void onLevelUnload(final LevelEvent.Unload event) {
+        if (event.getLevel() instanceof ServerLevel level)
+            CACHES.remove(level.dimension());
+    }
+
+    /**
+     * Teleports {@code enderMan} to a random safe spot within vanilla's range, trying the cache first and then up
+     * to {@code maxVanillaAttempts} of vanilla's own attempts.
+     *
+     * @return whether the enderman moved
+     */
+    public static boolean teleport(EnderMan enderMan, int maxVanillaAttempts) {
+        long start = System.nanoTime();
+        try {
+            if (teleportFromCache(enderMan)) {
+                Metrics.TELEPORT_CACHE_HITS.increment();
+                Metrics.TELEPORT_PROBES_SAVED.add(fallbacks == 0L ? 1L : Math.max(1L, fallbackAttempts / fallbacks));
+                return true;
+            }
+
+            Metrics.TELEPORT_CACHE_MISSES.increment();
+            fallbacks++;
+            for (int i = 0; i < maxVanillaAttempts; i++) {
+                fallbackAttempts++;
+                if (enderMan.teleport())
+                    return true;
+            }
+            return false;
+        } finally {
+            Metrics.ENTITY_TELEPORT.stop(start);
+        }
+    }
+
+    // Picks a target the same way vanilla does, then the cached spot in that target's section nearest to it
+    private static boolean teleportFromCache(EnderMan enderMan) {
+        if (!enderMan.isAlive())
+            return false;
+        ServerLevel level = (ServerLevel) enderMan.level();
+        RandomSource random = enderMan.getRandom();
+        BlockPos target = BlockPos.containing(
+                enderMan.getX() + (random.nextDouble() - 0.5) * TELEPORT_RANGE * 2.0,
+                enderMan.getY() + (random.nextInt(TELEPORT_RANGE * 2) - TELEPORT_RANGE),
+                enderMan.getZ() + (random.nextDouble() - 0.5) * TELEPORT_RANGE * 2.0
+        );
+        long[] spots = cache(level).spots(target);
+        if (spots == null || spots.length == 0)
+            return false;
+
+        BlockPos spot = nearestInRange(enderMan, target, spots);
+        if (spot == null)
+            return false;
+        EntityTeleportEvent.EnderEntity event = ForgeEventFactory.onEnderTeleport(enderMan, spot.getX() + 0.5, spot.getY(), spot.getZ() + 0.5);
+        if (event.isCanceled())
+            return false;
+
+        // randomTeleport still checks the mob's actual collision box once, so a stale spot just counts as a miss
+        Vec3 from = enderMan.position();
+        if (!enderMan.randomTeleport(event.getTargetX(), event.getTargetY(), event.getTargetZ(), true))
+            return false;
+        level.gameEvent(GameEvent.TELEPORT, from, GameEvent.Context.of(enderMan));
+        if (!enderMan.isSilent()) {
+            level.playSound(null, enderMan.xo, enderMan.yo, enderMan.zo, SoundEvents.ENDERMAN_TELEPORT, enderMan.getSoundSource(), 1.0F, 1.0F);
+            enderMan.playSound(SoundEvents.ENDERMAN_TELEPORT, 1.0F, 1.0F);
+        }
+        return true;
+    }
+
+    // The cached spot nearest to the target that vanilla's own attempt could also have reached: within 32 blocks
+    // of the enderman sideways and 32 below to 31 above it. Vanilla would walk down the target's column, which may
+    // leave the section; that case is a miss and the enderman falls back to vanilla.
+    @Nullable
+    private static BlockPos nearestInRange(EnderMan enderMan, BlockPos target, long[] spots) {
+        BlockPos nearest = null;
+        long nearestDistance = Long.MAX_VALUE;
+        int y = Mth.floor(enderMan.getY());
+        for (long key : spots) {
+            int spotX = BlockPos.getX(key);
+            int spotY = BlockPos.getY(key);
+            int spotZ = BlockPos.getZ(key);
+            if (Math.abs(spotX + 0.5 - enderMan.getX()) > TELEPORT_RANGE || Math.abs(spotZ + 0.5 - enderMan.getZ()) > TELEPORT_RANGE
+                    || spotY < y - TELEPORT_RANGE || spotY >= y + TELEPORT_RANGE)
+                continue;
+            long dx = spotX - target.getX();
+            long dy = spotY - target.getY();
+            long dz = spotZ - target.getZ();
+            long distance = dx * dx + dy * dy + dz * dz;
+            if (distance < nearestDistance) {
+                nearest = BlockPos.of(key);
+                nearestDistance = distance;
+            }
+        }
+        return nearest;
+    }
+}
@@ -0,0 +1,119 @@
+package com.example.examplemod.teleport;
+
+import it.unimi.dsi.fastutil.longs.Long2ObjectLinkedOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.SectionPos;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.tags.FluidTags;
+import net.minecraft.world.level.ChunkPos;
+import net.minecraft.world.level.block.state.BlockState;
+import net.minecraft.world.level.chunk.LevelChunk;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Known safe standing spots for random teleports, per chunk section of one level.
+ * <p>
+ * A section is scanned the first time a teleport lands in it and the spots are reused by every mob after that,
+ * until a block change in or next to the section drops them. The cache is an LRU bounded by section count.
+ */
+public class TeleportDestinationCache {
+    private static final int MAX_SECTIONS = 4096;
+    // Plenty to spread a farm's worth of mobs out without keeping every air block of a section
+    private static final int MAX_SPOTS_PER_SECTION = 64;
+    private static final long[] NO_SPOTS = new long[0];
+
+    private final ServerLevel level;
+    // Each entry is scanned for one body height, so mobs of other heights don't share entries
+    private final int bodyHeight;
+    private final Long2ObjectLinkedOpenHashMap<long[]> sections = new Long2ObjectLinkedOpenHashMap<>();
+
+    public TeleportDestinationCache(ServerLevel level, int bodyHeight) {
+        this.level = level;
+        this.bodyHeight = bodyHeight;
+    }
+
+    /**
+     * The safe spots in the section containing {@code pos}, scanning it first if needed. Returns null when the
+     * section's chunk isn't loaded, since teleports must not load chunks.
+     */
+    @Nullable
+    public long[] spots(BlockPos pos) {
+        long key = SectionPos.asLong(pos);
+        long[] spots = this.sections.getAndMoveToLast(key);
+        if (spots != null)
+            return spots;
+
+        LevelChunk chunk = this.level.getChunkSource().getChunkNow(SectionPos.blockToSectionCoord(pos.getX()), SectionPos.blockToSectionCoord(pos.getZ()));
+        if (chunk == null || this.level.isOutsideBuildHeight(pos))
+            return null;
+        spots = scan(chunk, SectionPos.blockToSectionCoord(pos.getY()));
+        this.sections.putAndMoveToLast(key, spots);
+        if (this.sections.size() > MAX_SECTIONS)
+            this.sections.removeFirst();
+        return spots;
+    }
+
+    /**
+     * Drops every section whose spots could depend on the block at {@code pos}: a block can be the floor of the
+     * spot above it or part of the body room of the spots below it.
+     */
+    public void blockChanged(BlockPos pos) {
+        int x = SectionPos.blockToSectionCoord(pos.getX());
+        int z = SectionPos.blockToSectionCoord(pos.getZ());
+        int lowest = SectionPos.blockToSectionCoord(pos.getY() - this.bodyHeight + 1);
+        int highest = SectionPos.blockToSectionCoord(pos.getY() + 1);
+        for (int y = lowest; y <= highest; y++)
+            this.sections.remove(SectionPos.asLong(x, y, z));
+    }
+
+    public void chunkUnloaded(ChunkPos pos) {
+        for (int y = this.level.getMinSectionY(); y <= this.level.getMaxSectionY(); y++)
+            this.sections.remove(SectionPos.asLong(pos.x, y, pos.z));
+    }
+
+    // The same checks vanilla's teleport makes with block states alone: a floor that blocks motion and isn't
+    // water, and enough collision-free, liquid-free room above it for the mob
+    private long[] scan(LevelChunk chunk, int sectionY) {
+        LongArrayList found = new LongArrayList();
+        BlockPos.MutableBlockPos feet = new BlockPos.MutableBlockPos();
+        BlockPos.MutableBlockPos probe = new BlockPos.MutableBlockPos();
+        int minX = chunk.getPos().getMinBlockX();
+        int minZ = chunk.getPos().getMinBlockZ();
+        int minY = SectionPos.sectionToBlockCoord(sectionY);
+
+        for (int y = minY; y < minY + SectionPos.SECTION_SIZE; y++) {
+            if (y - 1 < this.level.getMinY() || y + this.bodyHeight - 1 > this.level.getMaxY())
+                continue;
+            for (int x = minX; x < minX + SectionPos.SECTION_SIZE; x++) {
+                for (int z = minZ; z < minZ + SectionPos.SECTION_SIZE; z++) {
+                    feet.set(x, y, z);
+                    if (isStandingSpot(chunk, feet, probe))
+                        found.add(feet.asLong());
+                }
+            }
+        }
+
+        if (found.isEmpty())
+            return NO_SPOTS;
+        if (found.size() <= MAX_SPOTS_PER_SECTION)
+            return found.toLongArray();
+        // Keep an even spread over the section rather than just its lowest layers
+        long[] spots = new long[MAX_SPOTS_PER_SECTION];
+        for (int i = 0; i < MAX_SPOTS_PER_SECTION; i++)
+            spots[i] = found.getLong((int) ((long) i * found.size() / MAX_SPOTS_PER_SECTION));
+        return spots;
+    }
+
+    private boolean isStandingSpot(LevelChunk chunk, BlockPos feet, BlockPos.MutableBlockPos probe) {
+        BlockState floor = chunk.getBlockState(probe.setWithOffset(feet, 0, -1, 0));
+        if (!floor.blocksMotion() || floor.getFluidState().is(FluidTags.WATER))
+            return false;
+        for (int dy = 0; dy < this.bodyHeight; dy++) {
+            BlockState body = chunk.getBlockState(probe.setWithOffset(feet, 0, dy, 0));
+            if (!body.getFluidState().isEmpty() || !body.getCollisionShape(chunk, probe).isEmpty())
+                return false;
+        }
+        return true;
+    }
+}
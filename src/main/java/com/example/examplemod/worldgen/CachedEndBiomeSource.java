@@ -0,0 +1,205 @@
+package com.example.examplemod.worldgen;
+
+import com.example.examplemod.metrics.Metrics;
+import com.mojang.serialization.Codec;
+import com.mojang.serialization.MapCodec;
+import com.mojang.serialization.codecs.RecordCodecBuilder;
+import it.unimi.dsi.fastutil.HashCommon;
+import it.unimi.dsi.fastutil.longs.Long2DoubleLinkedOpenHashMap;
+import net.minecraft.core.Holder;
+import net.minecraft.core.HolderGetter;
+import net.minecraft.core.QuartPos;
+import net.minecraft.core.SectionPos;
+import net.minecraft.resources.RegistryOps;
+import net.minecraft.world.level.ChunkPos;
+import net.minecraft.world.level.biome.Biome;
+import net.minecraft.world.level.biome.BiomeSource;
+import net.minecraft.world.level.biome.Biomes;
+import net.minecraft.world.level.biome.Climate;
+import net.minecraft.world.level.levelgen.DensityFunction;
+import net.minecraft.world.level.levelgen.DensityFunctions;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * The End's biome source, with vanilla's layout by default plus any number of extra biomes picked by erosion.
+ * <p>
+ * Outside the main island the End's erosion is a 2D function sampled once per section column, so each sample is
+ * kept in a small striped LRU map keyed by section column and every other quart in the column is a map lookup
+ * instead of a density function evaluation. That only holds while erosion is wrapped in a {@code cache_2d} or
+ * {@code flat_cache} marker, as vanilla's is; any other erosion is sampled per quart like vanilla. The map is shared by every sampler built from the same erosion
+ * function, so chunks generated on different threads fill it for each other.
+ */
+public class CachedEndBiomeSource extends BiomeSource {
+    public static final MapCodec<CachedEndBiomeSource> CODEC = RecordCodecBuilder.mapCodec(instance -> instance.group(
+            RegistryOps.retrieveElement(Biomes.THE_END),
+            RegistryOps.retrieveElement(Biomes.END_HIGHLANDS),
+            RegistryOps.retrieveElement(Biomes.END_MIDLANDS),
+            RegistryOps.retrieveElement(Biomes.SMALL_END_ISLANDS),
+            RegistryOps.retrieveElement(Biomes.END_BARRENS),
+            Thresholds.CODEC.optionalFieldOf("thresholds", Thresholds.VANILLA).forGetter(source -> source.thresholds),
+            ExtraBiome.CODEC.listOf().optionalFieldOf("extra_biomes", List.of()).forGetter(source -> source.extraBiomes)
+    ).apply(instance, instance.stable(CachedEndBiomeSource::new)));
+
+    private final Holder<Biome> end;
+    private final Holder<Biome> highlands;
+    private final Holder<Biome> midlands;
+    private final Holder<Biome> islands;
+    private final Holder<Biome> barrens;
+    private final Thresholds thresholds;
+    private final List<ExtraBiome> extraBiomes;
+    @Nullable
+    private volatile ErosionCache erosionCache;
+
+    public CachedEndBiomeSource(Holder<Biome> end, Holder<Biome> highlands, Holder<Biome> midlands, Holder<Biome> islands,
+                                Holder<Biome> barrens, Thresholds thresholds, List<ExtraBiome> extraBiomes) {
+        this.end = end;
+        this.highlands = highlands;
+        this.midlands = midlands;
+        this.islands = islands;
+        this.barrens = barrens;
+        this.thresholds = thresholds;
+        this.extraBiomes = List.copyOf(extraBiomes);
+    }
+
+    /**
+     * A source with exactly vanilla's biome layout, like {@code TheEndBiomeSource.create}.
+     */
+    public static CachedEndBiomeSource create(HolderGetter<Biome> biomes) {
+        return new CachedEndBiomeSource(
+                biomes.getOrThrow(Biomes.THE_END),
+                biomes.getOrThrow(Biomes.END_HIGHLANDS),
+                biomes.getOrThrow(Biomes.END_MIDLANDS),
+                biomes.getOrThrow(Biomes.SMALL_END_ISLANDS),
+                biomes.getOrThrow(Biomes.END_BARRENS),
+                Thresholds.VANILLA,
+                List.of()
+        );
+    }
+
+    @Override
+    protected MapCodec<? extends BiomeSource> codec() {
+        return CODEC;
+    }
+
+    @Override
+    protected Stream<Holder<Biome>> collectPossibleBiomes() {
+        return Stream.concat(
+                Stream.of(this.end, this.highlands, this.midlands, this.islands, this.barrens),
+                this.extraBiomes.stream().map(ExtraBiome::biome)
+        );
+    }
+
+    @Override
+    public Holder<Biome> getNoiseBiome(int x, int y, int z, Climate.Sampler sampler) {
+        int sectionX = SectionPos.blockToSectionCoord(QuartPos.toBlock(x));
+        int sectionZ = SectionPos.blockToSectionCoord(QuartPos.toBlock(z));
+        if ((long) sectionX * (long) sectionX + (long) sectionZ * (long) sectionZ <= 4096L)
+            return this.end;
+
+        // NoiseChunk hands out a new sampler for every chunk, wrapping the level's functions in its own per-chunk
+        // caches, so the map is kept for the function underneath those wrappers. Only a new RandomState changes it.
+        DensityFunction function = unwrapFlat(sampler.erosion());
+        double erosion;
+        if (function == null) {
+            // Erosion that may vary with y is sampled for every quart, exactly as vanilla does
+            erosion = sampler.erosion().compute(new DensityFunction.SinglePointContext(
+                    (sectionX * 2 + 1) * 8, QuartPos.toBlock(y), (sectionZ * 2 + 1) * 8));
+        } else {
+            ErosionCache cache = this.erosionCache;
+            if (cache == null || cache.function != function && !cache.function.equals(function))
+                this.erosionCache = cache = new ErosionCache(function);
+            erosion = cache.erosion(sectionX, sectionZ, QuartPos.toBlock(y));
+        }
+
+        for (ExtraBiome extra : this.extraBiomes) {
+            if (erosion >= extra.minErosion() && erosion < extra.maxErosion())
+                return extra.biome();
+        }
+        if (erosion > this.thresholds.highlands())
+            return this.highlands;
+        else if (erosion >= this.thresholds.midlands())
+            return this.midlands;
+        else
+            return erosion < this.thresholds.islands() ? this.islands : this.barrens;
+    }
+
+    // Strips cache markers, and the caches NoiseChunk replaces them with, off the top of a function. Caching never
+    // changes a value; interpolation does, so that is left on. Returns null unless one of the markers was a 2D
+    // cache, since only then does one sample stand in for the whole column.
+    @Nullable
+    private static DensityFunction unwrapFlat(DensityFunction function) {
+        boolean flat = false;
+        while (function instanceof DensityFunctions.MarkerOrMarked marked && marked.type() != DensityFunctions.Marker.Type.Interpolated) {
+            flat |= marked.type() == DensityFunctions.Marker.Type.Cache2D || marked.type() == DensityFunctions.Marker.Type.FlatCache;
+            function = marked.wrapped();
+        }
+        return flat ? function : null;
+    }
+
+    /**
+     * Erosion cut-offs between the outer End biomes. The defaults are vanilla's.
+     */
+    public record Thresholds(double highlands, double midlands, double islands) {
+        public static final Thresholds VANILLA = new Thresholds(0.25, -0.0625, -0.21875);
+        public static final Codec<Thresholds> CODEC = RecordCodecBuilder.create(instance -> instance.group(
+                Codec.DOUBLE.optionalFieldOf("highlands", VANILLA.highlands).forGetter(Thresholds::highlands),
+                Codec.DOUBLE.optionalFieldOf("midlands", VANILLA.midlands).forGetter(Thresholds::midlands),
+                Codec.DOUBLE.optionalFieldOf("islands", VANILLA.islands).forGetter(Thresholds::islands)
+        ).apply(instance, Thresholds::new));
+    }
+
+    /**
+     * A biome used wherever erosion falls in [{@code minErosion}, {@code maxErosion}). Extra biomes are checked in
+     * order before the vanilla thresholds.
+     */
+    public record ExtraBiome(Holder<Biome> biome, double minErosion, double maxErosion) {
+        public static final Codec<ExtraBiome> CODEC = RecordCodecBuilder.create(instance -> instance.group(
+                Biome.CODEC.fieldOf("biome").forGetter(ExtraBiome::biome),
+                Codec.DOUBLE.fieldOf("min_erosion").forGetter(ExtraBiome::minErosion),
+                Codec.DOUBLE.fieldOf("max_erosion").forGetter(ExtraBiome::maxErosion)
+        ).apply(instance, ExtraBiome::new));
+    }
+
+    // Erosion by section column for one erosion function. Each stripe is an LRU map guarded by its own lock.
+    private static final class ErosionCache {
+        private static final int STRIPES = 16;
+        private static final int STRIPE_CAPACITY = 512;
+
+        private final DensityFunction function;
+        private final Long2DoubleLinkedOpenHashMap[] stripes = new Long2DoubleLinkedOpenHashMap[STRIPES];
+
+        ErosionCache(DensityFunction function) {
+            this.function = function;
+            for (int i = 0; i < STRIPES; i++) {
+                this.stripes[i] = new Long2DoubleLinkedOpenHashMap(STRIPE_CAPACITY + 1);
+                // Erosion is never NaN, so NaN can stand in for a missing entry
+                this.stripes[i].defaultReturnValue(Double.NaN);
+            }
+        }
+
+        double erosion(int sectionX, int sectionZ, int blockY) {
+            long key = ChunkPos.asLong(sectionX, sectionZ);
+            Long2DoubleLinkedOpenHashMap stripe = this.stripes[(int) HashCommon.mix(key) & STRIPES - 1];
+            synchronized (stripe) {
+                double erosion = stripe.getAndMoveToLast(key);
+                if (!Double.isNaN(erosion))
+                    return erosion;
+            }
+
+            // Sampled at the centre of the section column, as vanilla does. Only erosion behind a 2D cache gets
+            // here, so the first quart asked about stands in for the whole column like it does in that cache.
+            double erosion = this.function.compute(new DensityFunction.SinglePointContext(
+                    (sectionX * 2 + 1) * 8, blockY, (sectionZ * 2 + 1) * 8));
+            Metrics.END_BIOME_EROSION_SAMPLES.increment();
+            synchronized (stripe) {
+                stripe.put(key, erosion);
+                if (stripe.size() > STRIPE_CAPACITY)
+                    stripe.removeFirstDouble();
+            }
+            return erosion;
+        }
+    }
+}
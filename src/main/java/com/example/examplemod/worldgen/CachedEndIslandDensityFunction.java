@@ -0,0 +1,193 @@
+package com.example.examplemod.worldgen;
+
+import com.example.examplemod.metrics.Metrics;
+import com.mojang.serialization.MapCodec;
+import net.minecraft.util.KeyDispatchDataCodec;
+import net.minecraft.util.Mth;
+import net.minecraft.util.RandomSource;
+import net.minecraft.world.level.levelgen.DensityFunction;
+import net.minecraft.world.level.levelgen.DensityFunctions;
+import net.minecraft.world.level.levelgen.LegacyRandomSource;
+import net.minecraft.world.level.levelgen.synth.SimplexNoise;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Drop-in replacement for vanilla's {@code minecraft:end_islands} density function.
+ * <p>
+ * Vanilla re-runs a 25x25 loop of simplex lookups for every sample it is asked about, even though the
+ * result only depends on the 8x8 block column cell. Here heights are computed a tile of cells at a time,
+ * sharing one pass over the island noise lattice, and kept in a fixed-size direct-mapped cache. Colliding
+ * tiles simply evict each other, so memory use is bounded no matter how far players travel.
+ */
+public final class CachedEndIslandDensityFunction implements DensityFunction.SimpleFunction {
+    // The codec instance is unseeded; RandomState hands us the real noise through mapAll
+    public static final KeyDispatchDataCodec<CachedEndIslandDensityFunction> CODEC =
+            KeyDispatchDataCodec.of(MapCodec.unit(() -> new CachedEndIslandDensityFunction(0L)));
+
+    // Handed to visitors in mapAll to see whether they seed end_islands; one instance, as building its noise isn't cheap
+    private static final DensityFunction SEED_PROBE = DensityFunctions.endIslands(0L);
+
+    private static final float ISLAND_THRESHOLD = -0.9F;
+    // Island lattice points are sampled +-12 around the column, see DensityFunctions.EndIslandDensityFunction
+    private static final int LATTICE_RADIUS = 12;
+    // A tile is 16x16 cells (128x128 blocks)
+    private static final int TILE_SHIFT = 4;
+    private static final int TILE_SIZE = 1 << TILE_SHIFT;
+    private static final int TILE_MASK = TILE_SIZE - 1;
+    // 1024 tiles of 1KiB each, enough for a few hundred players' worth of loaded End
+    private static final int CACHE_SLOTS = 1024;
+
+    private final SimplexNoise islandNoise;
+    private final AtomicReferenceArray<Tile> tiles = new AtomicReferenceArray<>(CACHE_SLOTS);
+
+    public CachedEndIslandDensityFunction(long seed) {
+        // Same derivation as the vanilla constructor so the unseeded codec instance behaves identically
+        RandomSource random = new LegacyRandomSource(seed);
+        random.consumeCount(17292);
+        this.islandNoise = new SimplexNoise(random);
+    }
+
+    public CachedEndIslandDensityFunction(SimplexNoise islandNoise) {
+        this.islandNoise = islandNoise;
+    }
+
+    @Override
+    public double compute(DensityFunction.FunctionContext context) {
+        int cellX = context.blockX() / 8;
+        int cellZ = context.blockZ() / 8;
+        return toDensity(tile(cellX >> TILE_SHIFT, cellZ >> TILE_SHIFT).height(cellX, cellZ));
+    }
+
+    @Override
+    public void fillArray(double[] values, DensityFunction.ContextProvider provider) {
+        // Consecutive indices almost always land in the same tile, so skip the cache lookup when they do
+        Tile tile = null;
+        for (int i = 0; i < values.length; i++) {
+            DensityFunction.FunctionContext context = provider.forIndex(i);
+            int cellX = context.blockX() / 8;
+            int cellZ = context.blockZ() / 8;
+            int tileX = cellX >> TILE_SHIFT;
+            int tileZ = cellZ >> TILE_SHIFT;
+            if (tile == null || tile.tileX != tileX || tile.tileZ != tileZ)
+                tile = tile(tileX, tileZ);
+            values[i] = toDensity(tile.height(cellX, cellZ));
+        }
+    }
+
+    @Override
+    public DensityFunction mapAll(DensityFunction.Visitor visitor) {
+        // RandomState only knows how to seed the vanilla function, so let it seed one and borrow its noise.
+        // Visitors that leave the vanilla function alone (e.g. NoiseChunk's wrapping) must not reset our seed.
+        if (visitor.apply(SEED_PROBE) instanceof DensityFunctions.EndIslandDensityFunction seeded && seeded != SEED_PROBE)
+            return visitor.apply(new CachedEndIslandDensityFunction(seeded.islandNoise));
+        return visitor.apply(this);
+    }
+
+    @Override
+    public double minValue() {
+        return -0.84375;
+    }
+
+    @Override
+    public double maxValue() {
+        return 0.5625;
+    }
+
+    @Override
+    public KeyDispatchDataCodec<? extends DensityFunction> codec() {
+        return CODEC;
+    }
+
+    /**
+     * The island height for a column cell ({@code blockX / 8}, {@code blockZ / 8}), bit-for-bit the same
+     * value as vanilla's {@code getHeightValue}.
+     */
+    public float getHeightValue(int cellX, int cellZ) {
+        return tile(cellX >> TILE_SHIFT, cellZ >> TILE_SHIFT).height(cellX, cellZ);
+    }
+
+    private static double toDensity(float height) {
+        return ((double) height - 8.0) / 128.0;
+    }
+
+    private Tile tile(int tileX, int tileZ) {
+        int slot = slot(tileX, tileZ);
+        Tile tile = this.tiles.get(slot);
+        if (tile == null || tile.tileX != tileX || tile.tileZ != tileZ) {
+            // Two threads may race to build the same tile; the result is deterministic so either one wins
+            long start = System.nanoTime();
+            tile = buildTile(tileX, tileZ);
+            this.tiles.lazySet(slot, tile);
+            Metrics.WORLDGEN_END_ISLANDS.stop(start);
+            Metrics.END_ISLAND_TILES_BUILT.increment();
+        }
+        return tile;
+    }
+
+    private static int slot(int tileX, int tileZ) {
+        int hash = tileX * 0x9E3779B9 ^ tileZ * 0x85EBCA6B;
+        return (hash ^ hash >>> 16) & (CACHE_SLOTS - 1);
+    }
+
+    private Tile buildTile(int tileX, int tileZ) {
+        int minCellX = tileX << TILE_SHIFT;
+        int minCellZ = tileZ << TILE_SHIFT;
+        // Integer division truncates towards zero exactly like vanilla's x / 2, and is still monotonic
+        int minLatticeX = minCellX / 2 - LATTICE_RADIUS;
+        int minLatticeZ = minCellZ / 2 - LATTICE_RADIUS;
+        int latticeWidth = (minCellX + TILE_MASK) / 2 + LATTICE_RADIUS - minLatticeX + 1;
+        int latticeDepth = (minCellZ + TILE_MASK) / 2 + LATTICE_RADIUS - minLatticeZ + 1;
+
+        // Falloff factor per lattice point, or 0 where there is no island (real factors are always >= 9)
+        float[] falloff = new float[latticeWidth * latticeDepth];
+        for (int dz = 0; dz < latticeDepth; dz++) {
+            long l1 = minLatticeZ + dz;
+            for (int dx = 0; dx < latticeWidth; dx++) {
+                long k1 = minLatticeX + dx;
+                if (k1 * k1 + l1 * l1 > 4096L && this.islandNoise.getValue((double) k1, (double) l1) < ISLAND_THRESHOLD)
+                    falloff[dz * latticeWidth + dx] = (Mth.abs((float) k1) * 3439.0F + Mth.abs((float) l1) * 147.0F) % 13.0F + 9.0F;
+            }
+        }
+
+        float[] heights = new float[TILE_SIZE * TILE_SIZE];
+        for (int cz = 0; cz < TILE_SIZE; cz++) {
+            for (int cx = 0; cx < TILE_SIZE; cx++) {
+                heights[cz << TILE_SHIFT | cx] = computeHeight(falloff, latticeWidth, minLatticeX, minLatticeZ, minCellX + cx, minCellZ + cz);
+            }
+        }
+        return new Tile(tileX, tileZ, heights);
+    }
+
+    // Mirrors DensityFunctions.EndIslandDensityFunction.getHeightValue, with the noise lookups replaced by the
+    // precomputed falloff lattice. Every float operation is kept in the same order so results stay identical.
+    private static float computeHeight(float[] falloff, int latticeWidth, int minLatticeX, int minLatticeZ, int x, int z) {
+        int i = x / 2;
+        int j = z / 2;
+        int k = x % 2;
+        int l = z % 2;
+        float height = 100.0F - Mth.sqrt((float) (x * x + z * z)) * 8.0F;
+        height = Mth.clamp(height, -100.0F, 80.0F);
+
+        for (int i1 = -LATTICE_RADIUS; i1 <= LATTICE_RADIUS; i1++) {
+            int row = i + i1 - minLatticeX;
+            for (int j1 = -LATTICE_RADIUS; j1 <= LATTICE_RADIUS; j1++) {
+                float factor = falloff[(j + j1 - minLatticeZ) * latticeWidth + row];
+                if (factor != 0.0F) {
+                    float f2 = (float) (k - i1 * 2);
+                    float f3 = (float) (l - j1 * 2);
+                    float island = 100.0F - Mth.sqrt(f2 * f2 + f3 * f3) * factor;
+                    island = Mth.clamp(island, -100.0F, 80.0F);
+                    height = Math.max(height, island);
+                }
+            }
+        }
+        return height;
+    }
+
+    private record Tile(int tileX, int tileZ, float[] heights) {
+        float height(int cellX, int cellZ) {
+            return this.heights[(cellZ & TILE_MASK) << TILE_SHIFT | cellX & TILE_MASK];
+        }
+    }
+}